@@ -0,0 +1,266 @@
+package hawkshock.nightnotifier.alloc;
+
+import hawkshock.nightnotifier.client.JfrHudFrame;
+import hawkshock.nightnotifier.client.debug.ClientPerf;
+import hawkshock.nightnotifier.client.ui.ColorParser;
+import hawkshock.nightnotifier.client.ui.HudCanvas;
+import hawkshock.nightnotifier.client.ui.OverlayLayout;
+import hawkshock.nightnotifier.client.ui.OverlayManager;
+import hawkshock.nightnotifier.client.ui.ProgressBarLayout;
+import hawkshock.nightnotifier.client.ui.ProgressBarRenderer;
+import hawkshock.nightnotifier.config.NightNotifierConfig;
+import hawkshock.nightnotifier.metrics.LatencyHistogram;
+import hawkshock.nightnotifier.server.NightBossBar;
+import hawkshock.nightnotifier.server.NightWorld;
+import hawkshock.nightnotifier.server.OffenderScan;
+import hawkshock.nightnotifier.server.OverworldTick;
+import hawkshock.nightnotifier.server.PreferenceStore;
+import hawkshock.nightnotifier.server.SleepTracker;
+import hawkshock.nightnotifier.server.SnapshotPublisher;
+import hawkshock.nightnotifier.server.SunriseCountdown;
+import hawkshock.nightnotifier.server.TickPressure;
+import hawkshock.nightnotifier.time.NightClock;
+import hawkshock.shared.config.ClientDisplayConfig;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.OrderedText;
+import net.minecraft.util.Identifier;
+import net.minecraft.world.World;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Fails the build when a per-tick or per-frame path starts allocating.
+ *
+ * Each case is warmed up so the JIT has settled, then run {@link #MEASURED} times while the
+ * thread's allocated-bytes counter is read before and after. Every path here is expected to
+ * allocate nothing; the budget allows under one byte per call for counter noise (a TLAB refill
+ * or an OSR compile landing mid-run), so one boxed value or lambda per call still fails.
+ *
+ * The server world tick is the real {@link OverworldTick} (what {@code tickOverworld} runs on a
+ * quiet tick) against a stub {@link NightWorld}, and the HUD frames are the real
+ * {@link ProgressBarRenderer} and {@link OverlayManager} render bodies drawing onto a stub
+ * {@link HudCanvas}. The stub world has no players, so the snapshot's offender rescan is measured
+ * on its own over a synthetic population.
+ *
+ * Exits with status 1 when any case is over budget, or when the JVM cannot count allocations.
+ */
+public final class AllocationGate {
+    private static final int WARMUP = 20_000;
+    private static final int MEASURED = 10_000;
+
+    @FunctionalInterface
+    private interface Case {
+        long run(int i);
+    }
+
+    private record Result(String name, long bytes) {
+        double perCall() {
+            return bytes / (double) MEASURED;
+        }
+
+        boolean ok() {
+            return bytes < MEASURED;
+        }
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Results land here so the JIT cannot drop the work being measured.
+    private static volatile long sink;
+
+    // Virtual overworld: the clock advances under the test, with nobody online.
+    private static final class GateWorld implements NightWorld {
+        long timeOfDay;
+        long time;
+        boolean thundering;
+        double mspt;
+
+        @Override public RegistryKey<World> key() { return World.OVERWORLD; }
+        @Override public long timeOfDay() { return timeOfDay; }
+        @Override public long time() { return time; }
+        @Override public boolean thundering() { return thundering; }
+        @Override public boolean suspended() { return false; }
+        @Override public double averageMspt() { return mspt; }
+        @Override public float tickRate() { return 20.0f; }
+        @Override public int sleepingPercentage() { return 100; }
+        @Override public List<ServerPlayerEntity> players() { return List.of(); }
+        @Override public ServerWorld world() { return null; }
+    }
+
+    // Counts draw calls so the render bodies cannot be optimized away; fixed 854x480 GUI with a 9px font.
+    private static final class GateCanvas implements HudCanvas {
+        static final Object FONT = new Object();
+        long draws;
+
+        @Override public int width() { return 854; }
+        @Override public int height() { return 480; }
+        @Override public Object font() { return FONT; }
+        @Override public int fontHeight() { return 9; }
+        @Override public int textWidth(OrderedText text) { return 180; }
+        @Override public void fill(int x1, int y1, int x2, int y2, int argb) { draws += x1 + y2 + argb; }
+        @Override public void text(OrderedText text, int x, int y, int argb) { draws += x + y; }
+        @Override public void centeredText(OrderedText text, int centerX, int y, int argb) { draws += centerX + y; }
+        @Override public void pushTransform(float x, float y, float scale) { draws++; }
+        @Override public void popTransform() { draws++; }
+        @Override public void texture(Identifier texture, int x, int y, float u, float v, int w, int h, int texW, int texH) { draws += x + y; }
+        @Override public int moonPhase() { return 3; }
+    }
+
+    // Stand-in for a ServerPlayerEntity in the offender rescan.
+    private static final class Sleeper {
+        final UUID id;
+        int ticksSinceRest;
+
+        Sleeper(UUID id, int ticksSinceRest) {
+            this.id = id;
+            this.ticksSinceRest = ticksSinceRest;
+        }
+
+        UUID id() {
+            return id;
+        }
+
+        int ticksSinceRest() {
+            return ticksSinceRest;
+        }
+    }
+
+    private AllocationGate() {}
+
+    public static void main(String[] args) {
+        if (!THREADS.isThreadAllocatedMemorySupported()) {
+            System.out.println("AllocationGate: per-thread allocation counters unsupported on this JVM; nothing was measured.");
+            System.exit(1);
+        }
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        // Registries and text need the vanilla bootstrap; it runs before anything is measured.
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        List<Result> results = new ArrayList<>();
+
+        NightNotifierConfig serverCfg = new NightNotifierConfig();
+        serverCfg.enableBossBar = true;
+        serverCfg.enableActionBarCountdown = true;
+        GateWorld world = new GateWorld();
+        OverworldTick overworld = new OverworldTick(new TickPressure(true, null, 0.9), new NightBossBar(serverCfg),
+                new SunriseCountdown(), new SleepTracker(), new SnapshotPublisher(), new PreferenceStore(16));
+        LatencyHistogram worldTick = new LatencyHistogram("world_tick");
+        results.add(measure("server world tick (OverworldTick)", i -> {
+            long start = System.nanoTime();
+            world.timeOfDay += 7; // crosses every phase, transitions included, a few times per run
+            world.time++;
+            world.thundering = (i & 0x3FFF) < 0x400;
+            world.mspt = 45.0 + (i & 31); // moves between tiers
+            int fired = overworld.tick(world, serverCfg);
+            worldTick.record(System.nanoTime() - start);
+            return fired + overworld.clock().ticksUntilSunrise();
+        }));
+
+        Random random = new Random(0x4E4E);
+        List<Sleeper> players = new ArrayList<>();
+        for (int p = 0; p < 64; p++) players.add(new Sleeper(new UUID(random.nextLong(), random.nextLong()), random.nextInt(120_000)));
+        OffenderScan<Sleeper> offenders = new OffenderScan<>(Sleeper::ticksSinceRest, Sleeper::id);
+        results.add(measure("server snapshot rescan (OffenderScan)", i -> {
+            for (int p = 0; p < players.size(); p++) players.get(p).ticksSinceRest += 20;
+            // Someone sleeps now and then, so the ranking changes as well as holds.
+            if ((i & 0xFF) == 0) players.get((i >>> 8) & 63).ticksSinceRest = 0;
+            return offenders.scan(players, 56_000) ? offenders.count() : -1;
+        }));
+
+        NightClock clock = new NightClock();
+        results.add(measure("client tick (NightClock.update)", i -> {
+            clock.update(i * 13L, (i & 0xFFF) < 0x100, 1200);
+            return clock.ticksUntilSunrise();
+        }));
+
+        ClientDisplayConfig cfg = new ClientDisplayConfig();
+        cfg.defaultDuration = 0;
+        // Long enough to stay up through warmup and measurement, so tick counts down a live message.
+        OverlayManager.show("Nightfall: Alex hasn't slept for 3 nights.", WARMUP + MEASURED + 100, cfg);
+        results.add(measure("client tick (OverlayManager.tick)", i -> {
+            OverlayManager.tick();
+            return OverlayManager.isShowing() ? i : -1;
+        }));
+        if (!OverlayManager.isShowing()) throw new IllegalStateException("overlay message expired during measurement");
+
+        GateCanvas canvas = new GateCanvas();
+        float[] scales = {1.0f, 1.7f};
+        results.add(measure("HUD frame (OverlayManager.render)", i -> {
+            cfg.textScale = scales[i & 1];
+            OverlayManager.render(canvas, cfg);
+            return canvas.draws;
+        }));
+        cfg.textScale = new ClientDisplayConfig().textScale;
+
+        String[] anchors = {"TOP_CENTER", "BOTTOM_RIGHT", " top_left ", null};
+        OverlayLayout overlay = new OverlayLayout();
+        results.add(measure("HUD frame (overlay layout + color)", i -> {
+            OverlayLayout l = overlay.plan(anchors[i & 3], 854, 480, 120 + (i & 63), 9,
+                    cfg.textScale, cfg.offsetX, cfg.offsetY, (i & 1) == 0);
+            return l.x + l.y + l.background + ColorParser.parseArgb(cfg.colorHex, 0xFFFFFFFF);
+        }));
+
+        NightClock barClock = new NightClock();
+        ProgressBarLayout bar = new ProgressBarLayout();
+        results.add(measure("HUD frame (progress bar layout)", i -> {
+            barClock.update(NightClock.NIGHT_START + (i % NightClock.NIGHT_LENGTH), false, cfg.morningWarningLeadTicks);
+            ProgressBarLayout l = bar.plan(cfg, barClock, 854 + (i & 255), 480);
+            return l.filledX + l.fillW + l.color + l.leftIconX + l.rightIconX;
+        }));
+
+        NightClock renderClock = new NightClock();
+        results.add(measure("HUD frame (ProgressBarRenderer.render)", i -> {
+            renderClock.update(NightClock.NIGHT_START + (i % NightClock.NIGHT_LENGTH), false, cfg.morningWarningLeadTicks);
+            ProgressBarRenderer.render(canvas, cfg, renderClock);
+            return canvas.draws;
+        }));
+
+        // Probes around the HUD and tick phases, panel open (recording) and closed.
+        results.add(measure("perf probes", i -> {
+            ClientPerf.setEnabled((i & 1) == 0);
+            long start = ClientPerf.start();
+            ClientPerf.end(ClientPerf.Phase.OVERLAY, start);
+            return start;
+        }));
+        ClientPerf.setEnabled(false);
+
+        // No recording is running, so this is the disabled path every frame takes.
+        results.add(measure("HUD frame (JFR frame probe)", i -> {
+            JfrHudFrame frame = JfrHudFrame.start();
+            JfrHudFrame.finish(frame, (i & 1) == 0, (i & 2) == 0);
+            return frame == null ? i : -1;
+        }));
+
+        boolean failed = false;
+        for (Result r : results) {
+            System.out.printf(Locale.ROOT, "%-4s %-42s %10d bytes  %8.3f bytes/call%n",
+                    r.ok() ? "ok" : "FAIL", r.name(), r.bytes(), r.perCall());
+            failed |= !r.ok();
+        }
+        if (failed) {
+            System.out.println("AllocationGate: a hot path allocates; see the FAIL lines above.");
+            System.exit(1);
+        }
+    }
+
+    private static Result measure(String name, Case c) {
+        long acc = 0;
+        for (int i = 0; i < WARMUP; i++) acc += c.run(i);
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED; i++) acc += c.run(i);
+        long after = THREADS.getCurrentThreadAllocatedBytes();
+        sink = acc;
+        return new Result(name, after - before);
+    }
+}
@@ -1,11 +1,21 @@
 package hawkshock.nightnotifier;
 
 import hawkshock.nightnotifier.client.ClientHandshake;
+import hawkshock.nightnotifier.client.ClientSleepStatus;
+import hawkshock.nightnotifier.client.EventDedupWindow;
+import hawkshock.nightnotifier.client.JfrHudFrame;
+import hawkshock.nightnotifier.client.debug.ClientPerf;
+import hawkshock.nightnotifier.client.debug.PerfOverlay;
 import hawkshock.shared.config.ClientDisplayConfig;
 import hawkshock.nightnotifier.client.config.ConfigWatcher;
 import hawkshock.nightnotifier.client.ui.OverlayManager;
 import hawkshock.nightnotifier.client.ui.ProgressBarRenderer;
+import hawkshock.nightnotifier.metrics.NightMetrics;
+import hawkshock.nightnotifier.network.LocalOverlayBridge;
+import hawkshock.nightnotifier.network.NightEventId;
 import hawkshock.nightnotifier.network.OverlayMessagePayload;
+import hawkshock.nightnotifier.network.SleepStatusPayload;
+import hawkshock.nightnotifier.time.NightClock;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
@@ -31,18 +41,23 @@ public class NightNotifierClient implements ClientModInitializer {
 
     private static ClientDisplayConfig CONFIG;
     private static Instant lastConfigTimestamp = Instant.EPOCH;
+    private static final int CONFIG_CHECK_TICKS = 20;
+    private static int configCheckTicks = 0;
 
     private static boolean prevCanSleep = false;
     private static boolean sunriseWarned = false;
 
-    private static final long NIGHT_START = 12541L;
-    private static final long NIGHT_END   = 23458L;
-    private static final long NIGHT_LENGTH = Math.floorMod(NIGHT_END - NIGHT_START, 24000L);
+    // Updated once per client tick; read by the simulation below and by the HUD.
+    private static final NightClock CLOCK = new NightClock();
+
+    // Recently delivered night events from either the server or the simulation below.
+    private static final EventDedupWindow DELIVERED = new EventDedupWindow(16);
 
     @Override
     public void onInitializeClient() {
         LOG.info("[NightNotifier] Client init");
         CONFIG = ClientDisplayConfig.load();
+        ClientPerf.setEnabled(CONFIG.showPerfOverlay);
         lastConfigTimestamp = ConfigWatcher.getConfigFileTimestamp();
 
         // ONE-TIME PROBE: prints DrawContext.drawTexture signatures to the run console.
@@ -50,91 +65,142 @@ public class NightNotifierClient implements ClientModInitializer {
         ClientProbe.printDrawContextSignatures();
 
         OverlayMessagePayload.registerTypeSafely();
+        SleepStatusPayload.registerTypeSafely();
         ClientHandshake.register();
 
         ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> {
             sunriseWarned = false;
             prevCanSleep = false;
+            DELIVERED.clear();
+            // Singleplayer / LAN host: take overlays straight from the in-process server.
+            if (client.isIntegratedServerRunning() && client.player != null) {
+                LocalOverlayBridge.attach(client.player.getUuid());
+            }
             ClientHandshake.sendInitial();
         });
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
+            LocalOverlayBridge.detach();
+            ClientHandshake.reset();
+            ClientSleepStatus.clear();
+            DELIVERED.clear();
+        });
 
-        ClientPlayNetworking.registerGlobalReceiver(OverlayMessagePayload.ID, (payload, context) ->
-                context.client().execute(() -> {
-                    LOG.debug("[NightNotifier] Received overlay payload: type={}, duration={}, msg={}",
-                            payload.eventType(), payload.duration(), payload.message());
-                    if ("SUNRISE_IMMINENT".equals(payload.eventType())) {
-                        int clientLead = CONFIG.morningWarningLeadTicks; 
-                        int serverLead = ClientHandshake.serverMorningLeadTicks >= 0 ? ClientHandshake.serverMorningLeadTicks : 1200;
-                        if (clientLead != serverLead) {
-                            LOG.debug("[NightNotifier] Ignoring server sunrise overlay (serverLead={} != clientLead={})", serverLead, clientLead);
-                            if (CONFIG.enablePhantomScreams) {
-                                MinecraftClient mc = MinecraftClient.getInstance();
-                                OverlayManager.playSoundForEvent("SUNRISE_IMMINENT", mc, CONFIG);
-                            }
-                            return;
-                        }
-                    }
-                    OverlayManager.set(payload.message(), payload.duration(), payload.eventType(), CONFIG);
-                })
-        );
+        ClientPlayNetworking.registerGlobalReceiver(OverlayMessagePayload.ID, (payload, context) -> {
+            ClientPerf.PAYLOADS_RECEIVED.increment();
+            context.client().execute(() -> handleOverlay(payload));
+        });
+        ClientPlayNetworking.registerGlobalReceiver(SleepStatusPayload.ID, (payload, context) -> {
+            ClientPerf.PAYLOADS_RECEIVED.increment();
+            context.client().execute(() -> ClientSleepStatus.apply(payload));
+        });
 
         HudRenderCallback.EVENT.register((drawContext, tickDelta) -> {
             if (!PROBE_PRINTED) {
                 ClientProbe.printDrawContextSignatures(); // one-time, on render thread
                 PROBE_PRINTED = true;
             }
-             lastConfigTimestamp = ConfigWatcher.checkAndReload(lastConfigTimestamp, NightNotifierClient::applyClientConfig);
-             ProgressBarRenderer.render(drawContext, CONFIG);
-             OverlayManager.render(drawContext);
+             JfrHudFrame frame = JfrHudFrame.start();
+             long start = ClientPerf.start();
+             ProgressBarRenderer.render(drawContext, CONFIG, CLOCK);
+             ClientPerf.end(ClientPerf.Phase.PROGRESS_BAR, start);
+             start = ClientPerf.start();
+             OverlayManager.render(drawContext, CONFIG);
+             ClientPerf.end(ClientPerf.Phase.OVERLAY, start);
+             PerfOverlay.render(drawContext);
+             JfrHudFrame.finish(frame, CONFIG.enableProgressBar && CLOCK.canSleep(), OverlayManager.isShowing());
          });
 
         ClientTickEvents.END_CLIENT_TICK.register(client -> {
-            if (client.world == null || client.player == null) return;
-            boolean serverLeadKnown = ClientHandshake.serverMorningLeadTicks >= 0;
-            if (ClientHandshake.authoritative && serverLeadKnown && ClientHandshake.serverMorningLeadTicks == CONFIG.morningWarningLeadTicks) return;
-            if (client.world.getRegistryKey() != World.OVERWORLD) return;
-
-            long dayTime = client.world.getTimeOfDay() % 24000L;
-            boolean thundering = client.world.isThundering();
-            boolean naturalNight = dayTime >= NIGHT_START && dayTime <= NIGHT_END;
-            boolean canSleepNow = thundering || naturalNight;
-
-            int lead = Math.max(0, CONFIG.morningWarningLeadTicks);
-            long warningStartTick = Math.max(NIGHT_START, NIGHT_END - lead);
-
-            if (canSleepNow && !prevCanSleep) {
-                simulate("Nightfall", "CLIENT_SIM_NIGHT_START");
-                sunriseWarned = false;
+            // A once-a-second stat of the config file is plenty for hot reload; doing it per frame is not free.
+            if (++configCheckTicks >= CONFIG_CHECK_TICKS) {
+                configCheckTicks = 0;
+                long start = ClientPerf.start();
+                lastConfigTimestamp = ConfigWatcher.checkAndReload(lastConfigTimestamp, NightNotifierClient::applyClientConfig);
+                ClientPerf.end(ClientPerf.Phase.CONFIG_WATCH, start);
             }
+            long start = ClientPerf.start();
+            onClientTick(client);
+            ClientPerf.end(ClientPerf.Phase.CLIENT_TICK, start);
+        });
+    }
 
-            if (naturalNight && nothreading(client, thundering) && canSleepNow
-                    && lead > 0 && dayTime >= warningStartTick && dayTime < NIGHT_END
-                    && !sunriseWarned) {
-                long remainingTicks = NIGHT_END - dayTime;
-                if (remainingTicks < 0) remainingTicks += 24000L;
-                int seconds = Math.max(0, (int) Math.ceil((double) remainingTicks / 20.0));
-                simulate(seconds + "s Until Sunrise", "CLIENT_SIM_SUNRISE_IMMINENT");
-                sunriseWarned = true;
-            }
+    private static void onClientTick(MinecraftClient client) {
+        if (client.world == null || client.player == null) return;
+        long timeOfDay = client.world.getTimeOfDay();
+        // /time set back to an earlier day reuses its event IDs; those nights are new events. Smaller
+        // steps back (a lagging sync, a time set within the day) keep the window.
+        if (Math.floorDiv(timeOfDay, NightClock.TICKS_PER_DAY) < CLOCK.dayNumber()) DELIVERED.clear();
+        CLOCK.update(timeOfDay, client.world.isThundering(), CONFIG.morningWarningLeadTicks);
+        for (OverlayMessagePayload local; (local = LocalOverlayBridge.poll()) != null; ) {
+            handleOverlay(local);
+        }
+        OverlayManager.tick();
+
+        // The in-process server already sends the host player everything except a sunrise
+        // warning at a lead the host changed locally; handleOverlay drops the server's one then.
+        boolean local = LocalOverlayBridge.isActive();
+        boolean leadMatches = serverLead() == CONFIG.morningWarningLeadTicks;
+        if (local && leadMatches) return;
+        boolean serverLeadKnown = ClientHandshake.serverMorningLeadTicks >= 0;
+        if (ClientHandshake.authoritative && serverLeadKnown && leadMatches) return;
+        if (client.world.getRegistryKey() != World.OVERWORLD) return;
+        if (client.world.getTickManager().isFrozen()) return;
+
+        boolean canSleepNow = CLOCK.canSleep();
+
+        if (canSleepNow && !prevCanSleep && !local) {
+            simulate("Nightfall", "CLIENT_SIM_NIGHT_START");
+            sunriseWarned = false;
+        }
 
-            if (!canSleepNow && prevCanSleep) sunriseWarned = false;
+        if (CLOCK.inWarningWindow() && !sunriseWarned) {
+            long remainingTicks = CLOCK.ticksUntilSunrise();
+            int seconds = NightClock.secondsFor(remainingTicks, client.world.getTickManager().getTickRate());
+            simulate(seconds + "s Until Sunrise", "CLIENT_SIM_SUNRISE_IMMINENT");
+            sunriseWarned = true;
+        }
 
-            OverlayManager.tick();
-            prevCanSleep = canSleepNow;
-        });
+        if (!canSleepNow && prevCanSleep) sunriseWarned = false;
+
+        prevCanSleep = canSleepNow;
+    }
+
+    // Shared by the network receiver and the integrated-server fast path.
+    private static void handleOverlay(OverlayMessagePayload payload) {
+        if (DELIVERED.contains(payload.sequenceId())) {
+            LOG.debug("[NightNotifier] Dropping duplicate overlay payload: type={}, id={}", payload.eventType(), payload.sequenceId());
+            NightMetrics.DEDUP_DROPS.increment();
+            return;
+        }
+        LOG.debug("[NightNotifier] Received overlay payload: type={}, duration={}, msg={}",
+                payload.eventType(), payload.duration(), payload.message());
+        if ("SUNRISE_IMMINENT".equals(payload.eventType())) {
+            int clientLead = CONFIG.morningWarningLeadTicks;
+            int serverLead = serverLead();
+            if (clientLead != serverLead) {
+                // Not recorded: the simulation delivers this event (text and sound) at the client's own lead.
+                LOG.debug("[NightNotifier] Ignoring server sunrise overlay (serverLead={} != clientLead={})", serverLead, clientLead);
+                return;
+            }
+        }
+        DELIVERED.add(payload.sequenceId());
+        OverlayManager.set(payload.message(), payload.duration(), payload.eventType(), CONFIG);
     }
 
-    private static boolean nothreading(MinecraftClient client, boolean thundering) {
-        return !thundering;
+    // Vanilla's default lead until the handshake says otherwise.
+    private static int serverLead() {
+        return ClientHandshake.serverMorningLeadTicks >= 0 ? ClientHandshake.serverMorningLeadTicks : 1200;
     }
 
     private static void renderProgressBar(DrawContext ctx) {
-        ProgressBarRenderer.render(ctx, CONFIG);
+        ProgressBarRenderer.render(ctx, CONFIG, CLOCK);
     }
 
     private static void simulate(String label, String eventType) {
         if (!CONFIG.enableNotifications) return;
         MinecraftClient mc = MinecraftClient.getInstance();
+        long eventId = NightEventId.of(mc.world.getRegistryKey().getValue().toString(), CLOCK, eventType);
+        if (DELIVERED.contains(eventId)) return;
         int tsr = mc.player.getStatHandler().getStat(Stats.CUSTOM.getOrCreateStat(Stats.TIME_SINCE_REST));
 
         int threshold = ClientHandshake.serverRestThresholdTicks >= 0 ? ClientHandshake.serverRestThresholdTicks : 56000;
@@ -154,6 +220,7 @@ public class NightNotifierClient implements ClientModInitializer {
             msg = label + ": " + mc.player.getName().getString() + " hasn't slept for " + nightsText + ".";
         }
 
+        DELIVERED.add(eventId);
         int dur = (ClientHandshake.serverOverlayDuration >= 0)
                 ? ClientHandshake.serverOverlayDuration
                 : (CONFIG.defaultDuration > 0 ? CONFIG.defaultDuration : 100);
@@ -162,12 +229,16 @@ public class NightNotifierClient implements ClientModInitializer {
 
     public static void applyClientConfig(ClientDisplayConfig updated) {
         CONFIG = updated;
+        ClientPerf.setEnabled(CONFIG.showPerfOverlay);
+        ClientPerf.CONFIG_RELOADS.increment();
         OverlayManager.applyCurrentStyle(CONFIG);
         if (!CONFIG.enableNotifications) OverlayManager.set("", 0, null, CONFIG);
     }
 
     public static void reloadConfig() {
         CONFIG = ClientDisplayConfig.load();
+        ClientPerf.setEnabled(CONFIG.showPerfOverlay);
+        ClientPerf.CONFIG_RELOADS.increment();
         OverlayManager.applyCurrentStyle(CONFIG);
     }
 }
@@ -30,6 +30,15 @@ public final class ClientHandshake {
         );
     }
 
+    /** Forget the last server's answer, so a server without the mod is not treated as authoritative. */
+    public static void reset() {
+        authoritative = false;
+        serverOverlayDuration = -1;
+        serverRestThresholdTicks = -1;
+        serverMorningLeadTicks = -1;
+        serverEnablePhantomScreams = false;
+    }
+
     public static void sendInitial() {
         try { ModHandshakePayload.register(); } catch (Throwable ignored) {}
         ClientPlayNetworking.send(new ModHandshakePayload("1.0.0", "overlay,sleep,insomnia"));
@@ -0,0 +1,38 @@
+package hawkshock.nightnotifier.client;
+
+import hawkshock.nightnotifier.network.SleepStatusPayload;
+import net.minecraft.text.OrderedText;
+import net.minecraft.text.Text;
+
+/**
+ * Latest "X/Y sleeping" delta from the server. The label is built once per received change
+ * so the HUD can draw it every frame without allocating.
+ */
+public final class ClientSleepStatus {
+    private ClientSleepStatus() {}
+
+    private static Text label = null;
+    private static OrderedText ordered = null;
+
+    public static void apply(SleepStatusPayload payload) {
+        label = payload.sleeping() > 0
+                ? Text.literal(payload.sleeping() + "/" + payload.required() + " sleeping")
+                : null;
+        ordered = label != null ? label.asOrderedText() : null;
+    }
+
+    public static void clear() {
+        label = null;
+        ordered = null;
+    }
+
+    /** Current label, or null when nobody is sleeping or the server does not send status. */
+    public static Text label() {
+        return label;
+    }
+
+    /** {@link #label()} already reordered for drawing, so the text renderer does not redo it per frame. */
+    public static OrderedText orderedLabel() {
+        return ordered;
+    }
+}
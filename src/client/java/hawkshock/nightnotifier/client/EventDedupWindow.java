@@ -0,0 +1,39 @@
+package hawkshock.nightnotifier.client;
+
+import hawkshock.nightnotifier.network.NightEventId;
+
+import java.util.Arrays;
+
+/**
+ * Small fixed-size window of recently delivered night event IDs.
+ * A repeated ID (server payload after client simulation, retransmit, reconnect) is dropped
+ * before any text or sound work happens. Client thread only.
+ */
+public final class EventDedupWindow {
+    private final long[] ids;
+    private int next = 0;
+
+    public EventDedupWindow(int size) {
+        this.ids = new long[Math.max(1, size)];
+    }
+
+    public boolean contains(long id) {
+        if (id == NightEventId.NONE) return false;
+        for (long seen : ids) {
+            if (seen == id) return true;
+        }
+        return false;
+    }
+
+    public void add(long id) {
+        if (id == NightEventId.NONE || contains(id)) return;
+        ids[next] = id;
+        next = (next + 1) % ids.length;
+    }
+
+    /** Forget every ID: a new world or a clock set backwards makes (world, day, kind) mean a new event. */
+    public void clear() {
+        Arrays.fill(ids, NightEventId.NONE);
+        next = 0;
+    }
+}
@@ -0,0 +1,45 @@
+package hawkshock.nightnotifier.client;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Duration JFR event around NightNotifier's HUD callback, one per frame. Disabled unless enabled in
+ * the recording settings; give it a threshold there to keep only slow frames.
+ *
+ * {@link #start} only allocates while a recording has the event enabled, so the HUD path stays
+ * allocation-free the rest of the time.
+ */
+@Name("nightnotifier.HudFrame")
+@Label("HUD Frame")
+@Category({"NightNotifier", "Client"})
+@Enabled(false)
+@StackTrace(false)
+public final class JfrHudFrame extends jdk.jfr.Event {
+    private static final EventType TYPE = EventType.getEventType(JfrHudFrame.class);
+
+    @Label("Progress Bar Shown")
+    public boolean progressBar;
+
+    @Label("Overlay Shown")
+    public boolean overlay;
+
+    /** A begun frame, or null when no recording wants it. */
+    public static JfrHudFrame start() {
+        if (!TYPE.isEnabled()) return null;
+        JfrHudFrame frame = new JfrHudFrame();
+        frame.begin();
+        return frame;
+    }
+
+    public static void finish(JfrHudFrame frame, boolean progressBar, boolean overlay) {
+        if (frame == null || !frame.shouldCommit()) return;
+        frame.progressBar = progressBar;
+        frame.overlay = overlay;
+        frame.commit();
+    }
+}
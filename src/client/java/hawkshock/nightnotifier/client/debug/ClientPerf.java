@@ -0,0 +1,68 @@
+package hawkshock.nightnotifier.client.debug;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timings and counters behind the client performance panel ({@code showPerfOverlay}).
+ *
+ * While the panel is closed {@link #start} returns 0 without reading the clock and {@link #end}
+ * returns on that, so the instrumented paths pay one static field read. Counters always run; a
+ * {@link LongAdder} increment per reload, sound or payload costs nothing worth gating.
+ */
+public final class ClientPerf {
+    private ClientPerf() {}
+
+    public enum Phase {
+        CONFIG_WATCH("config watch"),
+        PROGRESS_BAR("progress bar"),
+        OVERLAY("overlay render"),
+        CLIENT_TICK("client tick");
+
+        public final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    /** Samples kept per phase; also the sparkline width in pixels. */
+    public static final int WINDOW = 120;
+
+    static final Phase[] PHASES = Phase.values();
+    private static final RollingNanos[] WINDOWS = new RollingNanos[PHASES.length];
+    static {
+        for (int i = 0; i < WINDOWS.length; i++) WINDOWS[i] = new RollingNanos(WINDOW);
+    }
+
+    public static final LongAdder CONFIG_RELOADS = new LongAdder();
+    public static final LongAdder SOUNDS_PLAYED = new LongAdder();
+    public static final LongAdder PAYLOADS_RECEIVED = new LongAdder();
+
+    private static boolean enabled = false;
+
+    public static boolean enabled() {
+        return enabled;
+    }
+
+    /** Opening the panel starts from empty windows rather than whatever was recorded last time. */
+    public static void setEnabled(boolean on) {
+        if (on && !enabled) {
+            for (RollingNanos w : WINDOWS) w.clear();
+        }
+        enabled = on;
+    }
+
+    /** Start time to hand to {@link #end}, or 0 while the panel is closed. */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public static void end(Phase phase, long start) {
+        if (start == 0L) return;
+        WINDOWS[phase.ordinal()].record(System.nanoTime() - start);
+    }
+
+    public static RollingNanos window(Phase phase) {
+        return WINDOWS[phase.ordinal()];
+    }
+}
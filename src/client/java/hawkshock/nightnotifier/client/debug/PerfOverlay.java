@@ -0,0 +1,82 @@
+package hawkshock.nightnotifier.client.debug;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gui.DrawContext;
+
+import java.util.Locale;
+
+/**
+ * Top-left debug panel: one row per {@link ClientPerf.Phase} with rolling min/avg/p99 in
+ * microseconds and a sparkline of the window (newest on the right, samples above p99 in red),
+ * then the reload/sound/payload counters.
+ *
+ * Text is rebuilt every {@link #REFRESH_FRAMES} frames; it is unreadable when it changes every
+ * frame, and the formatting only happens while the panel is open.
+ */
+public final class PerfOverlay {
+    private PerfOverlay() {}
+
+    private static final int REFRESH_FRAMES = 10;
+    private static final int MARGIN = 4;
+    private static final int PAD = 3;
+    private static final int GAP = 6;
+    private static final int BACKGROUND = 0x90000000;
+    private static final int TEXT = 0xFFFFFFFF;
+    private static final int BAR = 0xFF55FF55;
+    private static final int BAR_SLOW = 0xFFFF5555;
+
+    private static final String[] lines = new String[ClientPerf.PHASES.length + 1];
+    private static int textWidth = 0;
+    private static int frames = REFRESH_FRAMES;
+
+    public static void render(DrawContext ctx) {
+        if (!ClientPerf.enabled()) return;
+        TextRenderer tr = MinecraftClient.getInstance().textRenderer;
+        if (tr == null) return;
+        if (++frames >= REFRESH_FRAMES) {
+            frames = 0;
+            refresh(tr);
+        }
+
+        int lineH = tr.fontHeight + 2;
+        int x = MARGIN + PAD;
+        int y = MARGIN + PAD;
+        int w = textWidth + GAP + ClientPerf.WINDOW;
+        ctx.fill(x - PAD, y - PAD, x + w + PAD, y + lines.length * lineH - 2 + PAD, BACKGROUND);
+        for (int i = 0; i < lines.length; i++) {
+            ctx.drawTextWithShadow(tr, lines[i], x, y + i * lineH, TEXT);
+            if (i < ClientPerf.PHASES.length) {
+                sparkline(ctx, ClientPerf.window(ClientPerf.PHASES[i]), x + textWidth + GAP, y + i * lineH, tr.fontHeight);
+            }
+        }
+    }
+
+    private static void refresh(TextRenderer tr) {
+        int width = 0;
+        for (int i = 0; i < ClientPerf.PHASES.length; i++) {
+            ClientPerf.Phase phase = ClientPerf.PHASES[i];
+            RollingNanos w = ClientPerf.window(phase);
+            w.summarize();
+            lines[i] = String.format(Locale.ROOT, "%s: min %.1f avg %.1f p99 %.1f us",
+                    phase.label, w.min / 1e3, w.mean / 1e3, w.p99 / 1e3);
+            width = Math.max(width, tr.getWidth(lines[i]));
+        }
+        lines[lines.length - 1] = "reloads " + ClientPerf.CONFIG_RELOADS.sum()
+                + "  sounds " + ClientPerf.SOUNDS_PLAYED.sum()
+                + "  payloads " + ClientPerf.PAYLOADS_RECEIVED.sum();
+        textWidth = Math.max(width, tr.getWidth(lines[lines.length - 1]) - GAP - ClientPerf.WINDOW);
+    }
+
+    // Scaled to the window max as of the last refresh; taller samples are clipped.
+    private static void sparkline(DrawContext ctx, RollingNanos w, int x, int y, int h) {
+        long top = Math.max(1L, w.max);
+        int n = w.size();
+        for (int age = 0; age < n; age++) {
+            long v = w.sample(age);
+            int bar = (int) Math.max(1L, Math.min(h, v * h / top));
+            int bx = x + w.capacity() - 1 - age;
+            ctx.fill(bx, y + h - bar, bx + 1, y + h, v > w.p99 ? BAR_SLOW : BAR);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package hawkshock.nightnotifier.client.debug;
+
+import java.util.Arrays;
+
+/**
+ * Ring buffer of the last {@code capacity} nanosecond samples for one client phase.
+ *
+ * {@link #record} is a store and two increments. {@link #summarize} fills {@link #min}, {@link #mean},
+ * {@link #p99} and {@link #max} from a preallocated scratch copy, so neither side allocates.
+ * Render thread only.
+ */
+public final class RollingNanos {
+    private final long[] samples;
+    private final long[] scratch;
+    private int next;
+    private int size;
+
+    public long min;
+    public long mean;
+    public long p99;
+    public long max;
+
+    public RollingNanos(int capacity) {
+        this.samples = new long[capacity];
+        this.scratch = new long[capacity];
+    }
+
+    public void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return samples.length;
+    }
+
+    /** Sample {@code age} records ago; 0 is the newest. */
+    public long sample(int age) {
+        return samples[Math.floorMod(next - 1 - age, samples.length)];
+    }
+
+    public void summarize() {
+        if (size == 0) {
+            min = mean = p99 = max = 0;
+            return;
+        }
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            scratch[i] = samples[i];
+            sum += samples[i];
+        }
+        Arrays.sort(scratch, 0, size);
+        min = scratch[0];
+        max = scratch[size - 1];
+        mean = sum / size;
+        p99 = scratch[Math.max(0, (int) Math.ceil(size * 0.99) - 1)];
+    }
+
+    public void clear() {
+        next = 0;
+        size = 0;
+        summarize();
+    }
+}
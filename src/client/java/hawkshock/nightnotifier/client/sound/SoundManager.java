@@ -1,5 +1,6 @@
 package hawkshock.nightnotifier.client.sound;
 
+import hawkshock.nightnotifier.client.debug.ClientPerf;
 import hawkshock.shared.config.ClientDisplayConfig;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.registry.Registries;
@@ -59,6 +60,7 @@ public final class SoundManager {
                     vol,
                     1.0f
             );
+            ClientPerf.SOUNDS_PLAYED.increment();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package hawkshock.nightnotifier.client.ui;
+
+/**
+ * Parses the config's {@code #RRGGBB} / {@code #AARRGGBB} colors (leading {@code #} optional) into ARGB.
+ * Hand-rolled so a render-path call never allocates or throws.
+ */
+public final class ColorParser {
+    private ColorParser() {}
+
+    public static int parseArgb(String hex, int fallback) {
+        if (hex == null) return fallback;
+        int start = 0;
+        int end = hex.length();
+        while (start < end && hex.charAt(start) <= ' ') start++;
+        while (end > start && hex.charAt(end - 1) <= ' ') end--;
+        if (start < end && hex.charAt(start) == '#') start++;
+
+        int len = end - start;
+        if (len != 6 && len != 8) return fallback;
+        int v = 0;
+        for (int i = start; i < end; i++) {
+            int d = Character.digit(hex.charAt(i), 16);
+            if (d < 0) return fallback;
+            v = (v << 4) | d;
+        }
+        return len == 6 ? 0xFF000000 | v : v;
+    }
+}
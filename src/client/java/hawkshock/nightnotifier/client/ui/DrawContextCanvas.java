@@ -0,0 +1,95 @@
+package hawkshock.nightnotifier.client.ui;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gl.RenderPipelines;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.text.OrderedText;
+import net.minecraft.util.Identifier;
+import org.joml.Matrix3x2fStack;
+
+/** {@link HudCanvas} over the current frame's {@link DrawContext}. One instance, rebound each frame; render thread only. */
+@Environment(EnvType.CLIENT)
+public final class DrawContextCanvas implements HudCanvas {
+    private static final DrawContextCanvas INSTANCE = new DrawContextCanvas();
+
+    private DrawContext ctx;
+    private MinecraftClient mc;
+
+    private DrawContextCanvas() {}
+
+    public static DrawContextCanvas of(DrawContext ctx) {
+        INSTANCE.ctx = ctx;
+        INSTANCE.mc = MinecraftClient.getInstance();
+        return INSTANCE;
+    }
+
+    @Override
+    public int width() {
+        return mc.getWindow().getScaledWidth();
+    }
+
+    @Override
+    public int height() {
+        return mc.getWindow().getScaledHeight();
+    }
+
+    @Override
+    public Object font() {
+        return mc.textRenderer;
+    }
+
+    @Override
+    public int fontHeight() {
+        return mc.textRenderer.fontHeight;
+    }
+
+    @Override
+    public int textWidth(OrderedText text) {
+        return mc.textRenderer.getWidth(text);
+    }
+
+    @Override
+    public void fill(int x1, int y1, int x2, int y2, int argb) {
+        ctx.fill(x1, y1, x2, y2, argb);
+    }
+
+    @Override
+    public void text(OrderedText text, int x, int y, int argb) {
+        ctx.drawTextWithShadow(mc.textRenderer, text, x, y, argb);
+    }
+
+    @Override
+    public void centeredText(OrderedText text, int centerX, int y, int argb) {
+        ctx.drawCenteredTextWithShadow(mc.textRenderer, text, centerX, y, argb);
+    }
+
+    @Override
+    public void pushTransform(float x, float y, float scale) {
+        Matrix3x2fStack matrices = ctx.getMatrices();
+        matrices.pushMatrix();
+        matrices.translate(x, y);
+        matrices.scale(scale, scale);
+    }
+
+    @Override
+    public void popTransform() {
+        ctx.getMatrices().popMatrix();
+    }
+
+    @Override
+    public void texture(Identifier texture, int x, int y, float u, float v, int w, int h, int texW, int texH) {
+        ctx.drawTexture(RenderPipelines.GUI_TEXTURED, texture, x, y, u, v, w, h, texW, texH);
+    }
+
+    @Override
+    public int moonPhase() {
+        if (mc.world == null) return 0;
+        try {
+            return mc.world.getMoonPhase();
+        } catch (Throwable ignored) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package hawkshock.nightnotifier.client.ui;
+
+import net.minecraft.text.OrderedText;
+import net.minecraft.util.Identifier;
+
+/**
+ * The drawing surface the HUD renderers use. {@link DrawContextCanvas} forwards to the frame's
+ * {@code DrawContext}; the allocation gate renders the same code onto a stub.
+ */
+public interface HudCanvas {
+    int width();
+
+    int height();
+
+    /** Null until fonts are loaded; changes identity when a resource reload swaps the font. */
+    Object font();
+
+    int fontHeight();
+
+    int textWidth(OrderedText text);
+
+    void fill(int x1, int y1, int x2, int y2, int argb);
+
+    void text(OrderedText text, int x, int y, int argb);
+
+    void centeredText(OrderedText text, int centerX, int y, int argb);
+
+    /** Push a transform that maps (0, 0) to (x, y) and scales by {@code scale}. */
+    void pushTransform(float x, float y, float scale);
+
+    void popTransform();
+
+    void texture(Identifier texture, int x, int y, float u, float v, int w, int h, int texW, int texH);
+
+    /** The client world's moon phase, 0 without a world. */
+    int moonPhase();
+}
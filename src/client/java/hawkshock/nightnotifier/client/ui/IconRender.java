@@ -3,9 +3,6 @@ package hawkshock.nightnotifier.client.ui;
 import hawkshock.shared.config.ClientDisplayConfig;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
-import net.minecraft.client.MinecraftClient;
-import net.minecraft.client.gui.DrawContext;
-import net.minecraft.client.gl.RenderPipelines;
 import net.minecraft.util.Identifier;
 
 @Environment(EnvType.CLIENT)
@@ -58,7 +55,7 @@ public final class IconRender {
     }
 
     // Render the vanilla sun by sampling the 16x16 sun disc centered inside the 32x32 sun atlas.
-    public static void renderSun(DrawContext ctx, ClientDisplayConfig cfg, int x, int y, int size) {
+    public static void renderSun(HudCanvas canvas, ClientDisplayConfig cfg, int x, int y, int size) {
         final int texW = 32;     // full sun.png atlas width (you reported 32x32)
         final int texH = 32;     // full sun.png atlas height
         final int region = 16;   // actual sun disc region size
@@ -66,8 +63,7 @@ public final class IconRender {
         final int srcY = (texH - region) / 2; // center -> (8)
 
         // Draw the 16x16 sun disc (pixel-perfect crop) into the destination rectangle.
-        ctx.drawTexture(
-                RenderPipelines.GUI_TEXTURED,
+        canvas.texture(
                 SUN_TEX,
                 x, y,
                 (float) srcX, (float) srcY,
@@ -77,19 +73,13 @@ public final class IconRender {
     }
 
     // Backwards-compatible convenience for existing callers that expect a single-icon draw.
-    public static void renderSingle(DrawContext ctx, ClientDisplayConfig cfg, int x, int y, int size) {
-        renderSun(ctx, cfg, x, y, size);
+    public static void renderSingle(HudCanvas canvas, ClientDisplayConfig cfg, int x, int y, int size) {
+        renderSun(canvas, cfg, x, y, size);
     }
 
     // Render the moon frame at native 16x16 size from the 128x64 moon sheet.
-    public static void renderMoon(DrawContext ctx, ClientDisplayConfig cfg, int x, int y, int size) {
-        int phase = 0;
-        MinecraftClient mc = MinecraftClient.getInstance();
-        if (mc != null && mc.world != null) {
-            try {
-                phase = mc.world.getMoonPhase();
-            } catch (Throwable ignored) {}
-        }
+    public static void renderMoon(HudCanvas canvas, ClientDisplayConfig cfg, int x, int y, int size) {
+        int phase = canvas.moonPhase();
 
         // sheet is 128x64, first frame starts at (8,8), frames 16x16 separated by 16 horizontally
         final int frameW = 16;
@@ -102,8 +92,7 @@ public final class IconRender {
         int srcX = startX + (phase % 8) * 16;
         int srcY = startY;
 
-        ctx.drawTexture(
-                RenderPipelines.GUI_TEXTURED,
+        canvas.texture(
                 MOON_TEX,
                 x, y,
                 (float) srcX, (float) srcY,
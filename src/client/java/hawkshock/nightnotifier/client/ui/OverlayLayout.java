@@ -0,0 +1,63 @@
+package hawkshock.nightnotifier.client.ui;
+
+/**
+ * Placement math for the notification overlay, kept free of Minecraft types.
+ *
+ * A single instance is reused by the render thread; {@link #plan} overwrites the public fields.
+ */
+public final class OverlayLayout {
+    public static final float MIN_SCALE = 0.5f;
+    public static final float MAX_SCALE = 2.5f;
+
+    public int x;
+    public int y;
+    public int padX;
+    public int padY;
+    public int background;
+    public float scale;
+
+    /**
+     * @param anchor   one of TOP_/BOTTOM_ + LEFT/CENTER/RIGHT (case-insensitive); anything else is TOP_CENTER
+     * @param textW    unscaled text width
+     * @param textH    unscaled text height
+     */
+    public OverlayLayout plan(String anchor, int screenW, int screenH, int textW, int textH,
+                              float textScale, int offsetX, int offsetY, boolean styled) {
+        scale = Math.max(MIN_SCALE, Math.min(MAX_SCALE, textScale));
+        int boxW = (int) (textW * scale);
+        int boxH = (int) (textH * scale);
+
+        boolean bottom = false;
+        int column = 1; // 0 left, 1 center, 2 right
+        if (anchor != null) {
+            // Matched in place: trim() would allocate a copy every frame for a padded config value.
+            if (is(anchor, "TOP_LEFT")) column = 0;
+            else if (is(anchor, "TOP_RIGHT")) column = 2;
+            else if (is(anchor, "BOTTOM_CENTER")) bottom = true;
+            else if (is(anchor, "BOTTOM_LEFT")) { bottom = true; column = 0; }
+            else if (is(anchor, "BOTTOM_RIGHT")) { bottom = true; column = 2; }
+        }
+        x = switch (column) {
+            case 0 -> 0;
+            case 2 -> screenW - boxW;
+            default -> (screenW - boxW) / 2;
+        };
+        y = bottom ? screenH - boxH : 0;
+        x += offsetX;
+        y += offsetY;
+
+        padX = styled ? 6 : 0;
+        padY = styled ? 4 : 0;
+        background = styled ? 0x90000000 : 0x00000000;
+        return this;
+    }
+
+    // equalsIgnoreCase against the anchor with surrounding whitespace ignored
+    private static boolean is(String anchor, String name) {
+        int start = 0;
+        int end = anchor.length();
+        while (start < end && anchor.charAt(start) <= ' ') start++;
+        while (end > start && anchor.charAt(end - 1) <= ' ') end--;
+        return end - start == name.length() && anchor.regionMatches(true, start, name, 0, name.length());
+    }
+}
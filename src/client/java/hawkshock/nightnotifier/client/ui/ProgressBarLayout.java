@@ -0,0 +1,60 @@
+package hawkshock.nightnotifier.client.ui;
+
+import hawkshock.nightnotifier.time.NightClock;
+import hawkshock.shared.config.ClientDisplayConfig;
+
+/**
+ * Placement and color math for the night progress bar and its icons, kept free of Minecraft types.
+ *
+ * A single instance is reused by the render thread; {@link #plan} overwrites the public fields.
+ */
+public final class ProgressBarLayout {
+    public int x;
+    public int y;
+    public int barW;
+    public int barH;
+    /** Left edge of the filled part; the fill is anchored right and shrinks left to right. */
+    public int filledX;
+    public int fillW;
+    public int color;
+    public int iconSize;
+    public int iconY;
+    public int leftIconX;
+    public int rightIconX;
+
+    public ProgressBarLayout plan(ClientDisplayConfig cfg, NightClock clock, int screenW, int screenH) {
+        int base = screenW / 3;
+        // Use config width/height if provided; else fall back to computed defaults
+        barW = cfg.progressBarWidth > 0 ? cfg.progressBarWidth : Math.max(120, Math.min(400, Math.round(base * 0.44f)));
+        barH = cfg.progressBarHeight > 0 ? cfg.progressBarHeight : 10;
+        x = (screenW - barW) / 2;
+        y = cfg.progressBarYOffset;
+
+        // Choose color by fraction (medium -> dark -> light) and red when within client lead
+        color = switch (clock.progressSection(cfg.morningWarningLeadTicks)) {
+            case 0 -> ColorParser.parseArgb(cfg.progressSectionColor0, 0xFFFF4444); // red
+            case 1 -> ColorParser.parseArgb(cfg.progressSectionColor1, 0xFF4A90E2); // medium blue
+            case 2 -> ColorParser.parseArgb(cfg.progressSectionColor2, 0xFF003366); // dark blue
+            default -> ColorParser.parseArgb(cfg.progressSectionColor3, 0xFF7FBFFF); // light blue
+        };
+        fillW = Math.max(0, Math.round(barW * clock.fraction()));
+        filledX = x + (barW - fillW);
+
+        int baseIcon = Math.max(8, Math.round(12 * cfg.textScale));
+        iconSize = Math.min(Math.max(8, Math.round(baseIcon * 0.75f)), 64);
+        int spacing = 6;
+        int extraRight = Math.max(2, Math.round(iconSize * 0.2f));
+        iconY = y + (barH - iconSize) / 2; // vertically center wrt bar
+
+        // Right icon (sun)
+        rightIconX = x + barW + spacing + extraRight;
+        if (rightIconX + iconSize + 4 > screenW) rightIconX = screenW - iconSize - 4;
+        // Left icon (moon)
+        leftIconX = x - iconSize - spacing - extraRight;
+        if (leftIconX < 4) leftIconX = 4;
+
+        if (iconY < 4) iconY = 4;
+        if (iconY + iconSize + 4 > screenH) iconY = Math.max(4, screenH - iconSize - 4);
+        return this;
+    }
+}
@@ -17,7 +17,7 @@ import java.nio.file.Paths;
  * This is a shared copy used while migrating callers to a single canonical config class.
  */
 public final class ClientDisplayConfig {
-    public int configVersion = 10;
+    public int configVersion = 12;
 
     public boolean enableNotifications = true;
     public boolean useClientStyle = true;
@@ -67,19 +67,29 @@ public final class ClientDisplayConfig {
     public String progressSectionColor2 = "#FF003366"; // mid (dark blue)
     public String progressSectionColor3 = "#FF7FBFFF"; // low (light blue)
 
+    // New: show the server's "X/Y sleeping" count under the progress bar
+    public boolean showSleepingStatus = true;
+
+    // New: debug panel with per-frame timings of this mod's client code (top-left). Timings are only taken while shown.
+    public boolean showPerfOverlay = false;
+
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
     private static final Path CONFIG_PATH = Paths.get("config", "nightnotifier_client.json");
 
     public static ClientDisplayConfig load() {
+        return load(CONFIG_PATH);
+    }
+
+    public static ClientDisplayConfig load(Path path) {
         ClientDisplayConfig cfg = null;
-        if (Files.exists(CONFIG_PATH)) {
-            try (Reader r = Files.newBufferedReader(CONFIG_PATH)) {
+        if (Files.exists(path)) {
+            try (Reader r = Files.newBufferedReader(path)) {
                 cfg = GSON.fromJson(r, ClientDisplayConfig.class);
             } catch (IOException ignored) {}
         }
         if (cfg == null) {
             cfg = new ClientDisplayConfig();
-            save(cfg);
+            save(cfg, path);
             return cfg;
         }
         // Migration / clamp
@@ -115,7 +125,17 @@ public final class ClientDisplayConfig {
             if (!hasField(cfg, "progressSectionColor3")) cfg.progressSectionColor3 = "#FF7FBFFF";
             cfg.configVersion = 10;
         }
-        save(cfg);
+        if (cfg.configVersion < 11) {
+            // Introduced showSleepingStatus
+            if (!hasField(cfg, "showSleepingStatus")) cfg.showSleepingStatus = true;
+            cfg.configVersion = 11;
+        }
+        if (cfg.configVersion < 12) {
+            // Introduced showPerfOverlay
+            if (!hasField(cfg, "showPerfOverlay")) cfg.showPerfOverlay = false;
+            cfg.configVersion = 12;
+        }
+        save(cfg, path);
         return cfg;
     }
 
@@ -124,11 +144,15 @@ public final class ClientDisplayConfig {
     }
 
     public static void save(ClientDisplayConfig cfg) {
+        save(cfg, CONFIG_PATH);
+    }
+
+    public static void save(ClientDisplayConfig cfg, Path path) {
         if (cfg.textScale < 0.5f) cfg.textScale = 0.5f;
         if (cfg.textScale > 2.5f) cfg.textScale = 2.5f;
         try {
-            Files.createDirectories(CONFIG_PATH.getParent());
-            try (Writer w = Files.newBufferedWriter(CONFIG_PATH)) {
+            Files.createDirectories(path.getParent());
+            try (Writer w = Files.newBufferedWriter(path)) {
                 GSON.toJson(cfg, w);
             }
         } catch (IOException ignored) {}
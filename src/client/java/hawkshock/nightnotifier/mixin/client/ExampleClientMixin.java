@@ -1,3 +0,0 @@
-// Client mixin disabled for crash isolation test.
-package hawkshock.nightnotifier.mixin.client;
-public class ExampleClientMixin {}
\ No newline at end of file
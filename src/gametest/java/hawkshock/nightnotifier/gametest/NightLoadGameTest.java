@@ -0,0 +1,141 @@
+package hawkshock.nightnotifier.gametest;
+
+import hawkshock.nightnotifier.NightNotifier;
+import hawkshock.nightnotifier.config.NightNotifierConfig;
+import hawkshock.nightnotifier.metrics.LatencyHistogram;
+import hawkshock.nightnotifier.metrics.NightMetrics;
+import net.fabricmc.fabric.api.gametest.v1.GameTest;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.test.TestContext;
+import net.minecraft.text.Text;
+import net.minecraft.util.math.BlockPos;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Load harness: one night (dusk through sunrise) with 10, 100 and 500 simulated players.
+ *
+ * Each population has its own test environment so the runs land in separate batches and never
+ * share the overworld clock or {@link NightMetrics}. A run records NightNotifier's per-tick cost
+ * and packet count, appends a CSV row to {@code nightnotifier-load.csv} in the run directory and
+ * fails when the slowest NightNotifier tick exceeds {@code -Dnightnotifier.gametest.maxTickMillis}
+ * (default 5, a tenth of a 20 TPS tick).
+ *
+ * Adaptive degradation is switched off for the run, so a slow test server cannot defer or thin
+ * the broadcasts being measured: every run must send both of them.
+ */
+public class NightLoadGameTest {
+    private static final long DUSK = 11_800L;
+    private static final long PAST_SUNRISE = 24_200L;
+    // Time of day advanced per server tick; small enough that every transition still lands on its own tick.
+    private static final int TIME_STEP = 10;
+    private static final int MAX_TICKS = (int) ((PAST_SUNRISE - DUSK) / TIME_STEP) + 200;
+    // A thunderstorm mid-run would move the sleep window.
+    private static final int CLEAR_WEATHER_TICKS = MAX_TICKS * 2;
+
+    @GameTest(environment = "nightnotifier-gametest:load_10", maxTicks = MAX_TICKS)
+    public void night10Players(TestContext context) {
+        runNight(context, 10);
+    }
+
+    @GameTest(environment = "nightnotifier-gametest:load_100", maxTicks = MAX_TICKS)
+    public void night100Players(TestContext context) {
+        runNight(context, 100);
+    }
+
+    @GameTest(environment = "nightnotifier-gametest:load_500", maxTicks = MAX_TICKS)
+    public void night500Players(TestContext context) {
+        runNight(context, 500);
+    }
+
+    private static void runNight(TestContext context, int count) {
+        ServerWorld world = context.getWorld();
+        SimulatedPopulation population = SimulatedPopulation.spawn(world, context.getAbsolutePos(BlockPos.ORIGIN.up()), count, 0x4E4E_4C4FL + count);
+        world.setWeather(CLEAR_WEATHER_TICKS, 0, false, false);
+        world.setTimeOfDay(DUSK);
+        disableDegradation(context, world.getServer());
+        NightMetrics.reset();
+
+        long[] peakMspt = {0L};
+        boolean[] done = {false};
+        context.runAtEveryTick(() -> {
+            if (done[0]) return;
+            peakMspt[0] = Math.max(peakMspt[0], world.getServer().getAverageNanosPerTick());
+            if (world.getTimeOfDay() < PAST_SUNRISE) {
+                world.setTimeOfDay(world.getTimeOfDay() + TIME_STEP);
+                return;
+            }
+            done[0] = true;
+            population.despawn();
+            finish(context, count, peakMspt[0]);
+        });
+    }
+
+    // Through the config file and /nightnotifier reload, the same path an admin would take.
+    private static void disableDegradation(TestContext context, MinecraftServer server) {
+        NightNotifierConfig cfg = NightNotifierConfig.loadOrCreate();
+        if (cfg.enableAdaptiveDegradation) {
+            cfg.enableAdaptiveDegradation = false;
+            NightNotifierConfig.save(cfg);
+        }
+        long reloads = NightMetrics.CONFIG_RELOADS.sum();
+        server.getCommandManager().executeWithPrefix(server.getCommandSource(), "nightnotifier reload");
+        context.assertTrue(NightMetrics.CONFIG_RELOADS.sum() > reloads,
+                Text.literal("Config reload failed; cannot switch off adaptive degradation"));
+    }
+
+    private static void finish(TestContext context, int count, long peakMspt) {
+        LatencyHistogram tick = NightMetrics.WORLD_TICK;
+        long maxTickNanos = tick.maxNanos();
+        long packets = NightMetrics.PACKETS_SENT.sum();
+        long broadcasts = NightMetrics.BROADCAST.count();
+        report(count, tick, packets, broadcasts, peakMspt);
+
+        long budgetNanos = (long) (maxTickMillis() * 1_000_000L);
+        long deferred = NightMetrics.DEFERRED_BROADCASTS.sum();
+        long expired = NightMetrics.EXPIRED_BROADCASTS.sum();
+        context.assertTrue(deferred == 0 && expired == 0, Text.literal(
+                "Broadcasts deferred (" + deferred + ") or expired (" + expired + ") with degradation off"));
+        context.assertTrue(broadcasts >= 2,
+                Text.literal("Expected night start and sunrise warning broadcasts, got " + broadcasts));
+        context.assertTrue(packets > 0, Text.literal("No packets sent to " + count + " players"));
+        context.assertTrue(maxTickNanos <= budgetNanos, Text.literal(String.format(Locale.ROOT,
+                "NightNotifier tick peaked at %.2fms with %d players (budget %.2fms)",
+                maxTickNanos / 1e6, count, budgetNanos / 1e6)));
+        context.complete();
+    }
+
+    private static void report(int count, LatencyHistogram tick, long packets, long broadcasts, long peakMspt) {
+        String row = String.format(Locale.ROOT, "%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%d,%.3f",
+                count, tick.count(), tick.percentile(50) / 1e6, tick.percentile(99) / 1e6, tick.maxNanos() / 1e6,
+                NightMetrics.COLLECT_OFFENDERS.maxNanos() / 1e6, NightMetrics.BROADCAST.maxNanos() / 1e6,
+                broadcasts, packets, peakMspt / 1e6);
+        NightNotifier.LOGGER.info("[NightNotifier] Load run: players={} ticks={} p50={}ms p99={}ms max={}ms packets={} peakMspt={}ms",
+                count, tick.count(), tick.percentile(50) / 1e6, tick.percentile(99) / 1e6, tick.maxNanos() / 1e6,
+                packets, peakMspt / 1e6);
+        Path file = Path.of(System.getProperty("nightnotifier.gametest.report", "nightnotifier-load.csv"));
+        try {
+            if (Files.notExists(file)) {
+                Files.writeString(file, "players,ticks,tick_p50_ms,tick_p99_ms,tick_max_ms,collect_max_ms,"
+                        + "broadcast_max_ms,broadcasts,packets,server_peak_avg_mspt\n", StandardCharsets.UTF_8);
+            }
+            Files.writeString(file, row + "\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            NightNotifier.LOGGER.warn("[NightNotifier] Failed to write load report {}", file, e);
+        }
+    }
+
+    private static double maxTickMillis() {
+        try {
+            return Double.parseDouble(System.getProperty("nightnotifier.gametest.maxTickMillis", "5"));
+        } catch (NumberFormatException e) {
+            return 5.0;
+        }
+    }
+}
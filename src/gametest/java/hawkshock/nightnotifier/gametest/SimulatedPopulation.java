@@ -0,0 +1,71 @@
+package hawkshock.nightnotifier.gametest;
+
+import com.mojang.authlib.GameProfile;
+import net.fabricmc.fabric.api.entity.FakePlayer;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.stat.Stats;
+import net.minecraft.util.math.BlockPos;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * N fake {@link ServerPlayerEntity}s in one world with seeded random TIME_SINCE_REST values.
+ *
+ * Players are added to the world and announced through {@link ServerPlayConnectionEvents#JOIN}, so
+ * NightNotifier indexes them exactly as it does real joins. Their network handlers drop every
+ * packet, which leaves only the mod's own work on the server thread.
+ */
+final class SimulatedPopulation {
+    // A week: with the default 56000-tick threshold a bit over half the population are offenders.
+    private static final int MAX_TICKS_SINCE_REST = 168000;
+
+    private final ServerWorld world;
+    private final List<ServerPlayerEntity> players;
+
+    private SimulatedPopulation(ServerWorld world, List<ServerPlayerEntity> players) {
+        this.world = world;
+        this.players = players;
+    }
+
+    static SimulatedPopulation spawn(ServerWorld world, BlockPos at, int count, long seed) {
+        MinecraftServer server = world.getServer();
+        SplittableRandom rnd = new SplittableRandom(seed);
+        List<ServerPlayerEntity> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Unique per run: FakePlayer caches by profile, and a discarded entity cannot be re-added.
+            String name = "nnload" + count + "_" + i;
+            UUID uuid = UUID.nameUUIDFromBytes(("nightnotifier-load:" + seed + ":" + name).getBytes(StandardCharsets.UTF_8));
+            ServerPlayerEntity p = FakePlayer.get(world, new GameProfile(uuid, name));
+            p.refreshPositionAndAngles(at.getX() + 0.5, at.getY(), at.getZ() + 0.5, 0f, 0f);
+            // The first player is always an offender so every run broadcasts.
+            int ticks = i == 0 ? MAX_TICKS_SINCE_REST : rnd.nextInt(MAX_TICKS_SINCE_REST);
+            p.getStatHandler().setStat(p, Stats.CUSTOM.getOrCreateStat(Stats.TIME_SINCE_REST), ticks);
+            world.onPlayerConnected(p);
+            ServerPlayConnectionEvents.JOIN.invoker().onPlayReady(p.networkHandler, ServerPlayNetworking.getSender(p), server);
+            players.add(p);
+        }
+        return new SimulatedPopulation(world, players);
+    }
+
+    int size() {
+        return players.size();
+    }
+
+    void despawn() {
+        MinecraftServer server = world.getServer();
+        for (ServerPlayerEntity p : players) {
+            ServerPlayConnectionEvents.DISCONNECT.invoker().onPlayDisconnect(p.networkHandler, server);
+            world.removePlayer(p, Entity.RemovalReason.DISCARDED);
+        }
+        players.clear();
+    }
+}
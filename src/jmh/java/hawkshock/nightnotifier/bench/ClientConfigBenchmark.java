@@ -0,0 +1,51 @@
+package hawkshock.nightnotifier.bench;
+
+import hawkshock.shared.config.ClientDisplayConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/** {@link ClientDisplayConfig} load/save round trips against a temp file. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ClientConfigBenchmark {
+    private Path dir;
+    private Path file;
+    private ClientDisplayConfig cfg;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("nightnotifier-jmh");
+        file = dir.resolve("nightnotifier_client.json");
+        cfg = new ClientDisplayConfig();
+        ClientDisplayConfig.save(cfg, file);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(dir);
+    }
+
+    /** Includes the migration pass and the write-back load() always does. */
+    @Benchmark
+    public ClientDisplayConfig load() {
+        return ClientDisplayConfig.load(file);
+    }
+
+    @Benchmark
+    public void save() {
+        ClientDisplayConfig.save(cfg, file);
+    }
+}
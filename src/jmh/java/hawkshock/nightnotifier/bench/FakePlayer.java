@@ -0,0 +1,18 @@
+package hawkshock.nightnotifier.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/** Stand-in for a ServerPlayerEntity: just the name and the TIME_SINCE_REST stat the hot paths read. */
+record FakePlayer(String name, int ticksSinceRest) {
+    /** {@code count} players, roughly two thirds of them past a 56000-tick threshold; fixed seed. */
+    static List<FakePlayer> population(int count) {
+        SplittableRandom rnd = new SplittableRandom(42);
+        List<FakePlayer> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            out.add(new FakePlayer("Player" + i, rnd.nextInt(0, 168000)));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,38 @@
+package hawkshock.nightnotifier.bench;
+
+import hawkshock.nightnotifier.client.ui.ColorParser;
+import hawkshock.nightnotifier.client.ui.OverlayLayout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/** Per-frame HUD work that does not need a GL context: color parsing and overlay placement. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HudMathBenchmark {
+    @Param({"#FFFFFF", "#80FF4444", "not-a-color"})
+    public String color;
+
+    @Param({"TOP_CENTER", "bottom_right"})
+    public String anchor;
+
+    private final OverlayLayout layout = new OverlayLayout();
+
+    @Benchmark
+    public int parseColor() {
+        return ColorParser.parseArgb(color, 0xFFFFFFFF);
+    }
+
+    @Benchmark
+    public int planOverlay() {
+        OverlayLayout l = layout.plan(anchor, 960, 540, 312, 9, 1.7f, 0, 80, true);
+        return l.x ^ l.y;
+    }
+}
@@ -0,0 +1,58 @@
+package hawkshock.nightnotifier.bench;
+
+import hawkshock.nightnotifier.server.NotificationText;
+import hawkshock.nightnotifier.server.OffenderRanking;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Offender collection/sort and broadcast message composition at 10/100/1000 players. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OffenderBenchmark {
+    private static final int THRESHOLD = 56000;
+
+    @Param({"10", "100", "1000"})
+    public int players;
+
+    private List<FakePlayer> population;
+    private List<FakePlayer> offenders;
+
+    @Setup
+    public void setup() {
+        population = FakePlayer.population(players);
+        offenders = OffenderRanking.collect(population, FakePlayer::ticksSinceRest, THRESHOLD);
+    }
+
+    @Benchmark
+    public List<FakePlayer> collectOffenders() {
+        return OffenderRanking.collect(population, FakePlayer::ticksSinceRest, THRESHOLD);
+    }
+
+    /** The pre-extraction shape: filter, then a comparator that re-reads the stat on every compare. */
+    @Benchmark
+    public List<FakePlayer> collectOffendersComparatorBaseline() {
+        List<FakePlayer> out = new ArrayList<>();
+        for (FakePlayer p : population) {
+            if (p.ticksSinceRest() >= THRESHOLD) out.add(p);
+        }
+        out.sort((a, b) -> Integer.compare(b.ticksSinceRest(), a.ticksSinceRest()));
+        return out;
+    }
+
+    @Benchmark
+    public String composeMessage() {
+        if (offenders.isEmpty()) return "";
+        return NotificationText.compose("Nightfall", offenders, FakePlayer::name, FakePlayer::ticksSinceRest, 5);
+    }
+}
@@ -0,0 +1,48 @@
+package hawkshock.nightnotifier.bench;
+
+import hawkshock.nightnotifier.network.OverlayMessagePayload;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.registry.DynamicRegistryManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/** {@link OverlayMessagePayload#CODEC} encode/decode on a heap buffer; no registries are touched. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PayloadCodecBenchmark {
+    private final OverlayMessagePayload payload = new OverlayMessagePayload(
+            "Nightfall: Steve hasn't slept for 3 nights. Others: Alex(2n), Notch(2n) +4", 100, "NIGHT_START", 0x1234_5678_9ABCL);
+
+    private RegistryByteBuf out;
+    private RegistryByteBuf encoded;
+
+    @Setup
+    public void setup() {
+        out = new RegistryByteBuf(Unpooled.buffer(256), DynamicRegistryManager.EMPTY);
+        encoded = new RegistryByteBuf(Unpooled.buffer(256), DynamicRegistryManager.EMPTY);
+        OverlayMessagePayload.CODEC.encode(encoded, payload);
+    }
+
+    @Benchmark
+    public ByteBuf encode() {
+        out.clear();
+        OverlayMessagePayload.CODEC.encode(out, payload);
+        return out;
+    }
+
+    @Benchmark
+    public OverlayMessagePayload decode() {
+        encoded.readerIndex(0);
+        return OverlayMessagePayload.CODEC.decode(encoded);
+    }
+}
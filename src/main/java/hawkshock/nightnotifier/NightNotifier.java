@@ -1,15 +1,54 @@
 package hawkshock.nightnotifier;
 
+import hawkshock.nightnotifier.api.NightNotifierEvents;
+import hawkshock.nightnotifier.api.NightSnapshot;
 import hawkshock.nightnotifier.config.NightNotifierConfig;
+import hawkshock.nightnotifier.eventlog.NightEventLog;
+import hawkshock.nightnotifier.eventlog.NightLogEntry;
+import hawkshock.nightnotifier.history.SleepHistory;
+import hawkshock.nightnotifier.metrics.BroadcastStats;
+import hawkshock.nightnotifier.metrics.JfrBroadcast;
+import hawkshock.nightnotifier.metrics.JfrCollectOffenders;
+import hawkshock.nightnotifier.metrics.JfrNightTransition;
+import hawkshock.nightnotifier.metrics.MetricsExporter;
+import hawkshock.nightnotifier.metrics.NightMetrics;
+import hawkshock.nightnotifier.metrics.StatsCommand;
+import hawkshock.nightnotifier.network.LocalOverlayBridge;
+import hawkshock.nightnotifier.network.NightEventId;
 import hawkshock.nightnotifier.network.OverlayMessagePayload;
+import hawkshock.nightnotifier.network.SleepStatusPayload;
+import hawkshock.nightnotifier.server.AudienceIndex;
+import hawkshock.nightnotifier.server.NightBossBar;
+import hawkshock.nightnotifier.server.NotificationBudget;
+import hawkshock.nightnotifier.server.NotificationText;
+import hawkshock.nightnotifier.server.OffenderRanking;
+import hawkshock.nightnotifier.server.OfflineRestCommand;
+import hawkshock.nightnotifier.server.OfflineRestScanner;
+import hawkshock.nightnotifier.server.OverworldTick;
+import hawkshock.nightnotifier.server.PlayerPreferences;
+import hawkshock.nightnotifier.server.PreferenceStore;
+import hawkshock.nightnotifier.server.PreferencesCommand;
+import hawkshock.nightnotifier.server.ReloadCommand;
+import hawkshock.nightnotifier.server.ServerHandshakeHandler;
+import hawkshock.nightnotifier.server.ServerNightWorld;
+import hawkshock.nightnotifier.server.SleepTracker;
+import hawkshock.nightnotifier.server.SnapshotPublisher;
+import hawkshock.nightnotifier.server.SunriseCountdown;
+import hawkshock.nightnotifier.server.TickPressure;
+import hawkshock.nightnotifier.time.NightClock;
+import hawkshock.nightnotifier.time.NightCycleEngine;
+import hawkshock.nightnotifier.trace.TraceRecorder;
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.entity.event.v1.ServerPlayerEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
 import net.minecraft.network.packet.s2c.play.SubtitleS2CPacket;
 import net.minecraft.network.packet.s2c.play.TitleFadeS2CPacket;
 import net.minecraft.network.packet.s2c.play.TitleS2CPacket;
 import net.minecraft.registry.Registries;
-import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvent;
 import net.minecraft.sound.SoundEvents;
@@ -22,8 +61,10 @@ import net.minecraft.world.World;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Original flow restored:
@@ -37,12 +78,27 @@ public class NightNotifier implements ModInitializer {
 
     private static NightNotifierConfig CONFIG;
 
-    private final Map<RegistryKey<World>, Boolean> priorCanSleep = new HashMap<>();
-    private final Map<RegistryKey<World>, Boolean> sunriseWarned = new HashMap<>();
-
-    private static final int TICKS_PER_DAY = 24000;
-    private static final long NIGHT_START = 12541L;
-    private static final long NIGHT_END   = 23458L;
+    private NotificationBudget budget;
+    private NightBossBar bossBar;
+    private AudienceIndex audienceIndex;
+    private TickPressure pressure;
+    private PreferenceStore prefs;
+    private final MetricsExporter exporter = new MetricsExporter();
+    private TraceRecorder traces;
+    private NightEventLog eventLog;
+    private final SunriseCountdown countdown = new SunriseCountdown();
+    private final SleepTracker sleepTracker = new SleepTracker();
+    private final SnapshotPublisher snapshots = new SnapshotPublisher();
+    private final ServerNightWorld overworldView = new ServerNightWorld();
+    private OverworldTick overworld;
+    // Overworld broadcasts still to send (NightCycleEngine bits), and when the first was deferred (-1 = not deferred).
+    private int pendingSends = 0;
+    private long deferredSince = -1L;
+    // Event IDs taken on the transition tick, so a deferred broadcast keeps the ID of the night it announces.
+    private long nightStartId = NightEventId.NONE;
+    private long sunriseId = NightEventId.NONE;
+
+    private static final int TICKS_PER_DAY = (int) NightClock.TICKS_PER_DAY;
 
     private SoundEvent phantomScream;
     private SoundEvent phantomFallbackNight;
@@ -53,8 +109,55 @@ public class NightNotifier implements ModInitializer {
         LOGGER.info("[NightNotifier] Server init start");
         ensureConfig();
         resolvePhantomSounds();
+        budget = new NotificationBudget(CONFIG.notificationBudget, CONFIG.notificationBudgetRefillTicks);
+        pressure = new TickPressure(CONFIG.enableAdaptiveDegradation, CONFIG.degradeTierMspt, CONFIG.degradeRecoverRatio);
         OverlayMessagePayload.registerTypeSafely();
+        SleepStatusPayload.registerTypeSafely();
+        ServerHandshakeHandler.register(NightNotifier::ensureConfig);
+        sleepTracker.register();
         ServerTickEvents.START_WORLD_TICK.register(this::onWorldTick);
+        bossBar = new NightBossBar(CONFIG);
+        audienceIndex = new AudienceIndex(CONFIG);
+        prefs = new PreferenceStore(CONFIG.preferenceCacheSize);
+        prefs.onChange(audienceIndex::refresh);
+        overworld = new OverworldTick(pressure, bossBar, countdown, sleepTracker, snapshots, prefs);
+        // Preferences only cover the vanilla channels, so a silenced modded player stays in the audience.
+        audienceIndex.setOptOut(player -> !isModded(player) && prefs.get(player.getUuid()).silenced());
+        PreferencesCommand.register(prefs);
+        ServerLifecycleEvents.SERVER_STARTED.register(prefs::start);
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> prefs.shutdown());
+        new SleepHistory(NightNotifier::ensureConfig).register();
+        traces = new TraceRecorder(NightNotifier::ensureConfig);
+        traces.register();
+        OfflineRestCommand.register(new OfflineRestScanner(CONFIG.statsScanThreads));
+        StatsCommand.register();
+        ReloadCommand.register(this::reloadConfig);
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            if (CONFIG.enableMetricsExporter && server.isDedicated()) startExporter();
+        });
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> exporter.stop());
+        eventLog = new NightEventLog(Paths.get("logs", "nightnotifier"), CONFIG.eventLogBufferSize,
+                CONFIG.eventLogMaxBytes, CONFIG.eventLogRotateHours, CONFIG.eventLogKeepFiles);
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            if (CONFIG.enableEventLog) eventLog.start();
+        });
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> eventLog.stop());
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            overworld.reset();
+            pendingSends = 0;
+            deferredSince = -1L;
+        });
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
+            prefs.load(handler.getPlayer().getUuid());
+            audienceIndex.add(handler.getPlayer());
+            bossBar.onJoin(handler.getPlayer());
+        });
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
+            audienceIndex.remove(handler.getPlayer().getUuid());
+            budget.forget(handler.getPlayer().getUuid());
+            bossBar.onLeave(handler.getPlayer());
+        });
+        ServerPlayerEvents.AFTER_RESPAWN.register((oldPlayer, newPlayer, alive) -> audienceIndex.add(newPlayer));
         LOGGER.info("[NightNotifier] Server init complete");
     }
 
@@ -63,6 +166,45 @@ public class NightNotifier implements ModInitializer {
         return CONFIG;
     }
 
+    // Components holding derived state get the new config; everything else reads ensureConfig() per use.
+    // Nothing changes unless the file parses. Service toggles act only when flipped, so a trace started
+    // by command keeps running.
+    private void reloadConfig(MinecraftServer server) throws IOException {
+        NightNotifierConfig previous = CONFIG;
+        try {
+            CONFIG = NightNotifierConfig.load();
+        } catch (IOException e) {
+            LOGGER.warn("[NightNotifier] Config reload failed, keeping the current config: {}", e.getMessage());
+            throw e;
+        }
+        budget.configure(CONFIG.notificationBudget, CONFIG.notificationBudgetRefillTicks);
+        pressure.configure(CONFIG.enableAdaptiveDegradation, CONFIG.degradeTierMspt, CONFIG.degradeRecoverRatio);
+        bossBar.configure(CONFIG);
+        audienceIndex.compile(CONFIG);
+        if (previous.enableMetricsExporter != CONFIG.enableMetricsExporter) {
+            if (!CONFIG.enableMetricsExporter) exporter.stop();
+            else if (server.isDedicated()) startExporter();
+        }
+        if (previous.enableEventLog != CONFIG.enableEventLog) {
+            if (CONFIG.enableEventLog) eventLog.start();
+            else eventLog.stop();
+        }
+        if (previous.enableTraceRecorder != CONFIG.enableTraceRecorder) {
+            if (CONFIG.enableTraceRecorder) traces.start(server);
+            else traces.stop();
+        }
+        NightMetrics.CONFIG_RELOADS.increment();
+        LOGGER.info("[NightNotifier] Config reloaded");
+    }
+
+    private void startExporter() {
+        try {
+            exporter.start(CONFIG.metricsExporterHost, CONFIG.metricsExporterPort);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("[NightNotifier] Metrics exporter failed to start: {}", e.toString());
+        }
+    }
+
     private void resolvePhantomSounds() {
         Identifier screamId = Identifier.of("minecraft", "entity.phantom.scream");
         phantomScream = Registries.SOUND_EVENT.get(screamId);
@@ -76,51 +218,104 @@ public class NightNotifier implements ModInitializer {
     private void onWorldTick(ServerWorld world) {
         // Only Overworld (match original)
         if (!world.getRegistryKey().equals(World.OVERWORLD)) return;
+        long start = System.nanoTime();
+        tickOverworld(world);
+        NightMetrics.WORLD_TICK.record(System.nanoTime() - start);
+    }
 
-        long dayTime = world.getTimeOfDay() % 24000L;
-        boolean thundering = world.isThundering();
-        boolean naturalNight = dayTime >= NIGHT_START && dayTime <= NIGHT_END;
-        boolean canSleepNow = thundering || naturalNight;
-        boolean previous = priorCanSleep.getOrDefault(world.getRegistryKey(), false);
-
+    // Everything that runs every tick lives in OverworldTick, where the allocation gate reaches it;
+    // this adds the broadcasts, which only run on a transition or while one is deferred.
+    private void tickOverworld(ServerWorld world) {
         NightNotifierConfig cfg = ensureConfig();
-        int lead = Math.max(0, cfg.morningWarningLeadTicks);
-        long warningStartTick = Math.max(NIGHT_START, NIGHT_END - lead);
-
-        if (canSleepNow && !previous) {
-            sendNightStart(world);
-            sunriseWarned.put(world.getRegistryKey(), false);
+        int transitions = overworld.tick(overworldView.bind(world), cfg);
+        if (transitions == OverworldTick.SUSPENDED) return;
+        NightClock clock = overworld.clock();
+        if ((transitions & NightCycleEngine.NIGHT_START) != 0) {
+            pendingSends |= NightCycleEngine.NIGHT_START;
+            nightStartId = eventId(world, clock, "NIGHT_START");
+        }
+        if ((transitions & NightCycleEngine.SUNRISE_IMMINENT) != 0) {
+            pendingSends |= NightCycleEngine.SUNRISE_IMMINENT;
+            sunriseId = eventId(world, clock, "SUNRISE_IMMINENT");
         }
 
-        if (naturalNight && !thundering && canSleepNow
-                && lead > 0
-                && dayTime >= warningStartTick && dayTime < NIGHT_END
-                && !sunriseWarned.getOrDefault(world.getRegistryKey(), false)) {
+        if (pendingSends != 0) sendPending(world, clock, cfg);
 
-            boolean success = sendSunriseLead(world);
-            sunriseWarned.put(world.getRegistryKey(), true);
+        if ((transitions & NightCycleEngine.SUNRISE) != 0) {
+            NightNotifierEvents.SUNRISE.invoker().onSunrise(world);
+            NightMetrics.EVENTS_FIRED.increment();
+            JfrNightTransition.emit("SUNRISE", clock.thundering(), clock.dayNumber(), clock.timeOfDay());
+            logEvent(world, clock, "SUNRISE", "transition", 0, null, null, NightEventId.NONE, 0L);
         }
+    }
 
-        if (!canSleepNow && previous) {
-            sunriseWarned.remove(world.getRegistryKey());
+    // API events fire on the transition tick; only the broadcasts wait out tick pressure.
+    private void sendPending(ServerWorld world, NightClock clock, NightNotifierConfig cfg) {
+        TickPressure.Tier tier = pressure.tier();
+        boolean deferred = deferredSince >= 0;
+        String latest = (pendingSends & NightCycleEngine.SUNRISE_IMMINENT) != 0 ? "SUNRISE_IMMINENT" : "NIGHT_START";
+        if (tier == TickPressure.Tier.DEFER) {
+            long now = world.getTime();
+            if (!deferred) {
+                deferredSince = now;
+                NightMetrics.DEFERRED_BROADCASTS.increment();
+                LOGGER.debug("[NightNotifier] Deferring night broadcast at {} mspt", Math.round(pressure.lastMspt()));
+                logEvent(world, clock, latest, "deferred", 0, null, null, NightEventId.NONE, 0L);
+                return;
+            }
+            if (now - deferredSince < cfg.degradeMaxDeferTicks) return;
+            tier = TickPressure.Tier.TOP_OFFENDER;
         }
-
-        priorCanSleep.put(world.getRegistryKey(), canSleepNow);
+        int sends = pendingSends;
+        pendingSends = 0;
+        deferredSince = -1L;
+        if (deferred) {
+            // Held past the end of its night, a notification has nothing left to say.
+            if (!clock.canSleep()) {
+                LOGGER.debug("[NightNotifier] Dropping deferred night broadcast: the night is over.");
+                NightMetrics.EXPIRED_BROADCASTS.increment();
+                logEvent(world, clock, latest, "expired", 0, null, null, NightEventId.NONE, 0L);
+                return;
+            }
+            // The sunrise warning carries the same offender list; one message is enough after a delay.
+            if ((sends & NightCycleEngine.SUNRISE_IMMINENT) != 0) sends &= ~NightCycleEngine.NIGHT_START;
+        }
+        if ((sends & NightCycleEngine.NIGHT_START) != 0) sendNightStart(world, clock, tier, nightStartId);
+        if ((sends & NightCycleEngine.SUNRISE_IMMINENT) != 0) sendSunriseLead(world, clock, tier, sunriseId);
     }
 
-    private void sendNightStart(ServerWorld world) {
+    private void sendNightStart(ServerWorld world, NightClock clock, TickPressure.Tier tier, long id) {
+        List<ServerPlayerEntity> audience = budgetedAudience(world, AudienceIndex.Event.NIGHT_START);
+        if (audience.isEmpty()) {
+            LOGGER.debug("Night start: no audience (rules exclude everyone or budgets are spent).");
+            logEvent(world, clock, "NIGHT_START", "no_audience", 0, null, null, NightEventId.NONE, 0L);
+            return;
+        }
+        long collectStart = System.nanoTime();
         List<ServerPlayerEntity> offenders = collectOffenders(world);
+        long collectNanos = System.nanoTime() - collectStart;
         if (offenders.isEmpty()) {
             LOGGER.info("Night start: no players met rest threshold (>= {}).", CONFIG.restThresholdTicks);
+            logEvent(world, clock, "NIGHT_START", "no_offenders", audience.size(), offenders, null, NightEventId.NONE, collectNanos);
             return;
         }
-        broadcast(world, "Nightfall", offenders, "NIGHT_START");
+        BroadcastStats stats = broadcast(world, audience, "Nightfall", offenders, "NIGHT_START", id, tier);
+        logEvent(world, clock, "NIGHT_START", "sent", audience.size(), offenders, stats, id, collectNanos);
     }
 
-    private boolean sendSunriseLead(ServerWorld world) {
+    private boolean sendSunriseLead(ServerWorld world, NightClock clock, TickPressure.Tier tier, long id) {
+        List<ServerPlayerEntity> audience = budgetedAudience(world, AudienceIndex.Event.SUNRISE_IMMINENT);
+        if (audience.isEmpty()) {
+            LOGGER.debug("Morning warning skipped: no audience (rules exclude everyone or budgets are spent).");
+            logEvent(world, clock, "SUNRISE_IMMINENT", "no_audience", 0, null, null, NightEventId.NONE, 0L);
+            return false;
+        }
+        long collectStart = System.nanoTime();
         List<ServerPlayerEntity> offenders = collectOffenders(world);
+        long collectNanos = System.nanoTime() - collectStart;
         if (offenders.isEmpty()) {
             LOGGER.info("Morning warning skipped: no players meet rest threshold (>= {}).", CONFIG.restThresholdTicks);
+            logEvent(world, clock, "SUNRISE_IMMINENT", "no_offenders", audience.size(), offenders, null, NightEventId.NONE, collectNanos);
             return false;
         }
 
@@ -131,61 +326,115 @@ public class NightNotifier implements ModInitializer {
         String nightsText = nights == 1 ? "1 night" : nights + " nights";
 
         // Compute current seconds until actual sunrise and use that in the label
-        long dayTime = world.getTimeOfDay() % 24000L;
-        long remainingTicks = NIGHT_END - dayTime;
-        if (remainingTicks < 0) remainingTicks += 24000L;
-        int seconds = Math.max(0, (int) Math.ceil((double) remainingTicks / 20.0));
+        long remainingTicks = clock.ticksUntilSunrise();
+        int seconds = NightClock.secondsFor(remainingTicks, world.getTickManager().getTickRate());
         String label = seconds + "s Until Sunrise";
 
-        broadcast(world, label, offenders, "SUNRISE_IMMINENT");
+        BroadcastStats stats = broadcast(world, audience, label, offenders, "SUNRISE_IMMINENT", id, tier);
+        logEvent(world, clock, "SUNRISE_IMMINENT", "sent", audience.size(), offenders, stats, id, collectNanos);
         return true;
     }
 
-    private List<ServerPlayerEntity> collectOffenders(ServerWorld world) {
-        int threshold = CONFIG.restThresholdTicks;
-        List<ServerPlayerEntity> offenders = new ArrayList<>();
-        for (ServerPlayerEntity p : world.getPlayers()) {
-            int tsr = p.getStatHandler().getStat(Stats.CUSTOM.getOrCreateStat(Stats.TIME_SINCE_REST));
-            if (tsr >= threshold) {
-                offenders.add(p);
+    // Builds the entry only when the event log is running; the appender thread does the rest.
+    private void logEvent(ServerWorld world, NightClock clock, String event, String outcome, int audience,
+                          List<ServerPlayerEntity> offenders, BroadcastStats stats, long sequenceId, long collectNanos) {
+        if (eventLog == null || !eventLog.enabled()) return;
+        List<NightSnapshot.Offender> snapshot = null;
+        if (offenders != null) {
+            snapshot = new ArrayList<>(offenders.size());
+            for (ServerPlayerEntity p : offenders) {
+                snapshot.add(new NightSnapshot.Offender(p.getUuid(), p.getName().getString(),
+                        p.getStatHandler().getStat(Stats.CUSTOM.getOrCreateStat(Stats.TIME_SINCE_REST))));
             }
         }
-        // Sort by highest time since rest descending
-        offenders.sort((a, b) -> Integer.compare(
-                b.getStatHandler().getStat(Stats.CUSTOM.getOrCreateStat(Stats.TIME_SINCE_REST)),
-                a.getStatHandler().getStat(Stats.CUSTOM.getOrCreateStat(Stats.TIME_SINCE_REST))
-        ));
-        return offenders;
+        eventLog.log(new NightLogEntry(System.currentTimeMillis(), world.getRegistryKey().getValue().toString(),
+                world.getTime(), clock.dayNumber(), event, clock.thundering(), sequenceId, outcome, audience, snapshot,
+                stats != null ? stats.channels : null, stats != null ? stats.packets : 0,
+                collectNanos, stats != null ? stats.nanos : 0L));
     }
 
-    private void broadcast(ServerWorld world,
-                           String eventLabel,
-                           List<ServerPlayerEntity> offenders,
-                           String eventType) {
+    private static long eventId(ServerWorld world, NightClock clock, String eventType) {
+        return NightEventId.of(world.getRegistryKey().getValue().toString(), clock, eventType);
+    }
 
-        NightNotifierConfig cfg = ensureConfig();
-        ServerPlayerEntity top = offenders.get(0);
+    // Compiled audience for the event with notification budget left; checked before any offender scan or message composition.
+    private List<ServerPlayerEntity> budgetedAudience(ServerWorld world, AudienceIndex.Event event) {
+        List<ServerPlayerEntity> audience = new ArrayList<>(audienceIndex.size());
+        audienceIndex.collect(event, world, audience);
+        if (budget.enabled()) {
+            long now = world.getTime();
+            int before = audience.size();
+            audience.removeIf(p -> !budget.available(p.getUuid(), now));
+            NightMetrics.BUDGET_DROPS.add(before - audience.size());
+        }
+        return audience;
+    }
 
-        int topTicks = top.getStatHandler().getStat(Stats.CUSTOM.getOrCreateStat(Stats.TIME_SINCE_REST));
-        int topNights = topTicks / TICKS_PER_DAY;
-        String topNightsText = topNights == 1 ? "1 night" : topNights + " nights";
-        String topName = top.getName().getString();
+    private List<ServerPlayerEntity> collectOffenders(ServerWorld world) {
+        long start = System.nanoTime();
+        JfrCollectOffenders jfr = new JfrCollectOffenders();
+        jfr.begin();
+        List<ServerPlayerEntity> players = world.getPlayers();
+        NightMetrics.OFFENDERS_SCANNED.add(players.size());
+        List<ServerPlayerEntity> offenders = OffenderRanking.collect(players, NightNotifier::timeSinceRest, CONFIG.restThresholdTicks);
+        NightMetrics.COLLECT_OFFENDERS.record(System.nanoTime() - start);
+        if (jfr.shouldCommit()) {
+            jfr.playersScanned = players.size();
+            jfr.offenders = offenders.size();
+            jfr.commit();
+        }
+        return offenders;
+    }
 
-        // Additional offenders list
-        List<String> extraNames = offenders.stream().skip(1).limit(Math.max(0, cfg.maxOffenderNames))
-                .map(p -> {
-                    int t = p.getStatHandler().getStat(Stats.CUSTOM.getOrCreateStat(Stats.TIME_SINCE_REST));
-                    int n = t / TICKS_PER_DAY;
-                    return p.getName().getString() + "(" + n + "n)";
-                })
-                .collect(Collectors.toList());
+    private static boolean isModded(ServerPlayerEntity p) {
+        return LocalOverlayBridge.isLocal(p.getUuid()) || ServerPlayNetworking.canSend(p, OverlayMessagePayload.ID);
+    }
 
-        int remaining = Math.max(0, offenders.size() - 1 - extraNames.size());
+    private static int timeSinceRest(ServerPlayerEntity p) {
+        return p.getStatHandler().getStat(Stats.CUSTOM.getOrCreateStat(Stats.TIME_SINCE_REST));
+    }
 
-        String extrasPart = extraNames.isEmpty() ? "" :
-                " Others: " + String.join(", ", extraNames) + (remaining > 0 ? " +" + remaining : "");
+    private BroadcastStats broadcast(ServerWorld world,
+                                     List<ServerPlayerEntity> audience,
+                                     String eventLabel,
+                                     List<ServerPlayerEntity> offenders,
+                                     String eventType,
+                                     long sequenceId,
+                                     TickPressure.Tier tier) {
+        long start = System.nanoTime();
+        JfrBroadcast jfr = new JfrBroadcast();
+        jfr.begin();
+        BroadcastStats stats = new BroadcastStats();
+        if (tier != TickPressure.Tier.FULL) NightMetrics.DEGRADED_BROADCASTS.increment();
+        String full = sendToAudience(world, audience, eventLabel, offenders, eventType, sequenceId, tier, stats);
+        stats.nanos = System.nanoTime() - start;
+        NightMetrics.BROADCAST.record(stats.nanos);
+        if (jfr.shouldCommit()) {
+            jfr.eventType = eventType;
+            jfr.recipients = audience.size();
+            jfr.moddedRecipients = stats.moddedRecipients;
+            jfr.offenders = offenders.size();
+            jfr.packets = stats.packets;
+            jfr.payloadBytes = (long) full.getBytes(StandardCharsets.UTF_8).length * audience.size();
+            jfr.commit();
+        }
+        return stats;
+    }
 
-        String full = eventLabel + ": " + topName + " hasn't slept for " + topNightsText + "." + extrasPart;
+    // Returns the composed message text.
+    private String sendToAudience(ServerWorld world,
+                                  List<ServerPlayerEntity> audience,
+                                  String eventLabel,
+                                  List<ServerPlayerEntity> offenders,
+                                  String eventType,
+                                  long sequenceId,
+                                  TickPressure.Tier tier,
+                                  BroadcastStats stats) {
+        NightNotifierConfig cfg = ensureConfig();
+        int packets = 0;
+        ServerPlayerEntity top = offenders.get(0);
+        String full = NotificationText.compose(eventLabel, offenders, p -> p.getName().getString(),
+                NightNotifier::timeSinceRest, tier.offenderList() ? cfg.maxOffenderNames : 0);
 
         boolean enableTitle = cfg.sendTitle;
         boolean enableSubtitle = cfg.sendSubtitle;
@@ -193,7 +442,7 @@ public class NightNotifier implements ModInitializer {
         boolean sendVanillaToModded = cfg.sendVanillaToModdedClients;
 
         Text titleTextSplit = Text.literal(eventLabel);
-        Text subtitleTextSplit = Text.literal(topName + " hasn't slept for " + topNightsText + ".");
+        Text subtitleTextSplit = Text.literal(NotificationText.headline(top.getName().getString(), timeSinceRest(top)));
         Text combinedFull = Text.literal(full);
         Text actionBarEvent = Text.literal(eventLabel);
         Text actionBarFull = Text.literal(full);
@@ -203,7 +452,7 @@ public class NightNotifier implements ModInitializer {
 
         SoundEvent chosen = null;
         float serverVolume = 1.0f;
-        if (cfg.enablePhantomScreams) {
+        if (cfg.enablePhantomScreams && tier.sounds()) {
             if (nightStart) {
                 chosen = phantomScream != null ? phantomScream : phantomFallbackNight;
                 serverVolume = Math.max(0f, cfg.nightScreamVolume);
@@ -213,23 +462,35 @@ public class NightNotifier implements ModInitializer {
             }
         }
 
-        for (ServerPlayerEntity player : world.getPlayers()) {
-            boolean modded = ServerPlayNetworking.canSend(player, OverlayMessagePayload.ID);
-
-            if (!modded && chosen != null && serverVolume > 0f) {
-                world.playSound(
-                        null,
-                        player.getBlockPos(),
-                        chosen,
-                        SoundCategory.HOSTILE,
-                        serverVolume,
-                        1.0f
-                );
+        long now = world.getTime();
+        for (ServerPlayerEntity player : audience) {
+            budget.consume(player.getUuid(), now);
+
+            // The integrated server's host runs the mod in this JVM and gets overlays over the local bridge.
+            boolean local = LocalOverlayBridge.isLocal(player.getUuid());
+            boolean modded = isModded(player);
+
+            // Server-side preferences only cover the vanilla channels; modded clients use their own config.
+            PlayerPreferences pref = modded ? PlayerPreferences.DEFAULT : prefs.get(player.getUuid());
+            float volume = serverVolume * pref.volumeScale();
+            if (!modded && chosen != null && pref.sound() && volume > 0f) {
+                // To this player only: a positional sound would reach every nearby recipient at this player's volume.
+                player.playSoundToPlayer(chosen, SoundCategory.HOSTILE, volume, 1.0f);
+                packets++;
+                stats.notified(NightMetrics.Channel.SOUND);
             }
 
             if (modded) {
                 int dur = cfg.overlayDuration > 0 ? cfg.overlayDuration : 100;
-                ServerPlayNetworking.send(player, new OverlayMessagePayload(full, dur, eventType));
+                OverlayMessagePayload payload = new OverlayMessagePayload(full, dur, eventType, sequenceId);
+                stats.moddedRecipients++;
+                if (local && LocalOverlayBridge.offer(player.getUuid(), payload)) {
+                    stats.notified(NightMetrics.Channel.LOCAL_BRIDGE);
+                } else {
+                    ServerPlayNetworking.send(player, payload);
+                    packets++;
+                    stats.notified(NightMetrics.Channel.PAYLOAD);
+                }
                 if (!sendVanillaToModded) continue;
             }
 
@@ -237,28 +498,49 @@ public class NightNotifier implements ModInitializer {
             Text subtitleToSend = null;
             Text actionBarToSend = null;
 
-            if (enableTitle && enableSubtitle) {
+            // A player who turned titles off, or whose titles are shed under tick pressure, keeps the
+            // message in the action bar unless that is off too.
+            boolean titles = pref.title() && tier.titles();
+            boolean playerTitle = enableTitle && titles;
+            boolean playerSubtitle = enableSubtitle && titles;
+            boolean playerActionBar = pref.actionBar() && (enableActionBar || (!titles && (enableTitle || enableSubtitle)));
+
+            if (playerTitle && playerSubtitle) {
                 titleToSend = titleTextSplit;
                 subtitleToSend = subtitleTextSplit;
-                if (enableActionBar) actionBarToSend = actionBarEvent;
-            } else if (enableTitle) {
+                if (playerActionBar) actionBarToSend = actionBarEvent;
+            } else if (playerTitle) {
                 titleToSend = combinedFull;
-                if (enableActionBar) actionBarToSend = actionBarEvent;
-            } else if (enableSubtitle) {
+                if (playerActionBar) actionBarToSend = actionBarEvent;
+            } else if (playerSubtitle) {
                 subtitleToSend = combinedFull;
-                if (enableActionBar) actionBarToSend = actionBarEvent;
-            } else if (enableActionBar) {
+                if (playerActionBar) actionBarToSend = actionBarEvent;
+            } else if (playerActionBar) {
                 actionBarToSend = actionBarFull;
             }
 
             if (titleToSend != null || subtitleToSend != null) {
                 player.networkHandler.sendPacket(new TitleFadeS2CPacket(cfg.titleFadeIn, cfg.titleStay, cfg.titleFadeOut));
-                if (titleToSend != null)    player.networkHandler.sendPacket(new TitleS2CPacket(titleToSend));
-                if (subtitleToSend != null) player.networkHandler.sendPacket(new SubtitleS2CPacket(subtitleToSend));
+                packets++;
+                if (titleToSend != null) {
+                    player.networkHandler.sendPacket(new TitleS2CPacket(titleToSend));
+                    packets++;
+                    stats.notified(NightMetrics.Channel.TITLE);
+                }
+                if (subtitleToSend != null) {
+                    player.networkHandler.sendPacket(new SubtitleS2CPacket(subtitleToSend));
+                    packets++;
+                    stats.notified(NightMetrics.Channel.SUBTITLE);
+                }
             }
             if (actionBarToSend != null) {
                 player.sendMessage(actionBarToSend, true);
+                packets++;
+                stats.notified(NightMetrics.Channel.ACTION_BAR);
             }
         }
+        NightMetrics.PACKETS_SENT.add(packets);
+        stats.packets = packets;
+        return full;
     }
 }
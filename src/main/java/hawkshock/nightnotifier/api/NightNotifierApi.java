@@ -0,0 +1,32 @@
+package hawkshock.nightnotifier.api;
+
+import hawkshock.nightnotifier.server.OfflineRestScanner;
+import hawkshock.nightnotifier.server.SnapshotPublisher;
+import net.minecraft.server.MinecraftServer;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Read-only query entry point for commands, placeholders and web panels.
+ *
+ * {@link #snapshot()} is a single volatile read: safe from any thread, never blocks and never scans
+ * players. The server thread publishes at most one new snapshot per tick, and only when data changed.
+ */
+public final class NightNotifierApi {
+    private NightNotifierApi() {}
+
+    public static NightSnapshot snapshot() {
+        return SnapshotPublisher.current();
+    }
+
+    /**
+     * Ticks since rest for every player who has ever joined, read from the world's stats files off the
+     * server thread. Online players' files can lag their live stat by up to one autosave. Completes on
+     * a worker thread; hop back with {@code server.execute} before touching game state.
+     */
+    public static CompletableFuture<OfflineRestScanner.Result> scanOfflineRest(MinecraftServer server) {
+        OfflineRestScanner scanner = OfflineRestScanner.instance();
+        if (scanner == null) return CompletableFuture.failedFuture(new IllegalStateException("NightNotifier not initialized"));
+        return scanner.scan(server);
+    }
+}
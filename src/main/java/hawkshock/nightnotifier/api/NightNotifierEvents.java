@@ -0,0 +1,64 @@
+package hawkshock.nightnotifier.api;
+
+import net.fabricmc.fabric.api.event.Event;
+import net.fabricmc.fabric.api.event.EventFactory;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * Night transition callbacks for other mods.
+ *
+ * Fired on the server thread from NightNotifier's single transition detector, so listeners do not
+ * need to poll the world clock themselves. Events fire even when no notification is sent
+ * (no offenders, budgets spent).
+ */
+public final class NightNotifierEvents {
+    private NightNotifierEvents() {}
+
+    /** The sleep window opened: natural nightfall, or a thunderstorm when {@code storm} is true. */
+    public static final Event<NightStart> NIGHT_START = EventFactory.createArrayBacked(NightStart.class,
+            listeners -> (world, storm) -> {
+                for (NightStart listener : listeners) listener.onNightStart(world, storm);
+            });
+
+    /** The morning warning window began; fired once per night. */
+    public static final Event<SunriseImminent> SUNRISE_IMMINENT = EventFactory.createArrayBacked(SunriseImminent.class,
+            listeners -> (world, ticksUntilSunrise) -> {
+                for (SunriseImminent listener : listeners) listener.onSunriseImminent(world, ticksUntilSunrise);
+            });
+
+    /** The sleep window closed: sunrise, or the end of a daytime thunderstorm. */
+    public static final Event<Sunrise> SUNRISE = EventFactory.createArrayBacked(Sunrise.class,
+            listeners -> world -> {
+                for (Sunrise listener : listeners) listener.onSunrise(world);
+            });
+
+    /**
+     * A player newly reached the configured rest threshold since the previous offender check. Checked
+     * every {@code snapshotRefreshTicks} and on each transition tick, day or night.
+     */
+    public static final Event<OffenderThreshold> OFFENDER_THRESHOLD_CROSSED = EventFactory.createArrayBacked(OffenderThreshold.class,
+            listeners -> (world, player, ticksSinceRest) -> {
+                for (OffenderThreshold listener : listeners) listener.onThresholdCrossed(world, player, ticksSinceRest);
+            });
+
+    @FunctionalInterface
+    public interface NightStart {
+        void onNightStart(ServerWorld world, boolean storm);
+    }
+
+    @FunctionalInterface
+    public interface SunriseImminent {
+        void onSunriseImminent(ServerWorld world, long ticksUntilSunrise);
+    }
+
+    @FunctionalInterface
+    public interface Sunrise {
+        void onSunrise(ServerWorld world);
+    }
+
+    @FunctionalInterface
+    public interface OffenderThreshold {
+        void onThresholdCrossed(ServerWorld world, ServerPlayerEntity player, int ticksSinceRest);
+    }
+}
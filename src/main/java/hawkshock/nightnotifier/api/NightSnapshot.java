@@ -0,0 +1,42 @@
+package hawkshock.nightnotifier.api;
+
+import hawkshock.nightnotifier.time.NightClock;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable view of the overworld night state and the current offender list.
+ *
+ * {@code version} increases every time a new snapshot is published, which only happens when some
+ * field changed. {@code sunriseTimeOfDay} is absolute and stays fixed through a night, so readers
+ * can derive the countdown from the current time of day without a new snapshot every tick.
+ */
+public record NightSnapshot(long version,
+                            NightClock.Phase phase,
+                            boolean canSleep,
+                            long sunriseTimeOfDay,
+                            int restThresholdTicks,
+                            List<Offender> offenders) {
+
+    public static final NightSnapshot EMPTY = new NightSnapshot(0L, NightClock.Phase.DAY, false, 0L, 0, List.of());
+
+    /**
+     * A player at or above the rest threshold, ordered by {@code ticksSinceRest} descending. The
+     * stat is as of the last publish, which happens at least whenever the list's members, their
+     * order or anyone's {@link #nights()} changes.
+     */
+    public record Offender(UUID uuid, String name, int ticksSinceRest) {
+        public int nights() {
+            return (int) (ticksSinceRest / NightClock.TICKS_PER_DAY);
+        }
+    }
+
+    public long ticksUntilSunrise(long timeOfDay) {
+        return Math.max(0L, sunriseTimeOfDay - timeOfDay);
+    }
+
+    public Offender topOffender() {
+        return offenders.isEmpty() ? null : offenders.get(0);
+    }
+}
@@ -2,6 +2,7 @@ package hawkshock.nightnotifier.config;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 
 import java.io.IOException;
 import java.io.Reader;
@@ -9,6 +10,8 @@ import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Server configuration for Night Notifier.
@@ -41,6 +44,84 @@ public final class NightNotifierConfig {
     public int restThresholdTicks = 56000;
     public int maxOffenderNames = 5; // how many additional offenders to list after top player (excluding the top)
 
+    // Thunderstorm flapping: a weather-only change of the sleep window must hold this long before it counts.
+    public int stormDwellTicks = 600;
+    // Per-player token bucket: at most notificationBudget notifications, one token regained every refill period. 0 = unlimited.
+    public int notificationBudget = 3;
+    public int notificationBudgetRefillTicks = 6000;
+
+    // Boss bar night progress for players without the mod. Updates only when the percentage crosses a step.
+    public boolean enableBossBar = false;
+    public int bossBarStepPercent = 5;
+    // Boss bar colors per progress section (same bands as the client's progressSectionColor0..3):
+    // PINK, BLUE, RED, GREEN, YELLOW, PURPLE or WHITE.
+    public String bossBarColor0 = "RED";
+    public String bossBarColor1 = "BLUE";
+    public String bossBarColor2 = "PURPLE";
+    public String bossBarColor3 = "WHITE";
+
+    // Live "Ns Until Sunrise" action bar for players without the mod during the morning warning window.
+    public boolean enableActionBarCountdown = false;
+
+    // How often the offender list behind NightNotifierApi.snapshot() is rescanned (ticks).
+    public int snapshotRefreshTicks = 20;
+
+    // Server-side per-player preferences (/nightnotifier prefs): how many records stay cached in memory.
+    public int preferenceCacheSize = 512;
+
+    // Persistent sleep history (<world>/nightnotifier/history.bin) behind /nightnotifier history.
+    // Once the log holds more than historyCompactAfterRecords records, all but the newest
+    // historyRetainRecords are folded into per-player totals.
+    public boolean enableSleepHistory = false;
+    public int historyCompactAfterRecords = 200000;
+    public int historyRetainRecords = 50000;
+
+    // Worker threads for /nightnotifier offline (parallel scan of <world>/stats).
+    public int statsScanThreads = 4;
+
+    // Prometheus text endpoint (GET /metrics) on dedicated servers. Binds to localhost by default.
+    // /nightnotifier reload starts or stops it; a new host or port needs a restart.
+    public boolean enableMetricsExporter = false;
+    public String metricsExporterHost = "127.0.0.1";
+    public int metricsExporterPort = 9464;
+
+    // JSON Lines log of night decisions in logs/nightnotifier/events.jsonl, written off the server thread.
+    // Rotated (and gzipped) at eventLogMaxBytes or every eventLogRotateHours; keeps eventLogKeepFiles archives.
+    // /nightnotifier reload starts or stops it; buffer, size and rotation settings need a restart.
+    public boolean enableEventLog = false;
+    public int eventLogBufferSize = 1024;
+    public long eventLogMaxBytes = 10L * 1024 * 1024;
+    public int eventLogRotateHours = 24;
+    public int eventLogKeepFiles = 14;
+
+    // Binary timeline trace (<world>/nightnotifier/traces/) for TraceReplayer; also /nightnotifier trace start|stop.
+    // Online players' TIME_SINCE_REST is checked every traceSampleTicks; only deviations are stored.
+    // Flipping enableTraceRecorder and running /nightnotifier reload starts or stops a trace.
+    public boolean enableTraceRecorder = false;
+    public int traceSampleTicks = 200;
+
+    // Load-aware degradation from the server's average tick time (MSPT over the last 100 ticks). At each
+    // threshold in degradeTierMspt a broadcast steps down one more tier: no sounds, no vanilla titles (action
+    // bar instead), top offender only, deferred. A tier is left once MSPT drops below its threshold * degradeRecoverRatio.
+    public boolean enableAdaptiveDegradation = true;
+    public double[] degradeTierMspt = {50.0, 60.0, 75.0, 100.0};
+    public double degradeRecoverRatio = 0.9;
+    // A deferred notification goes out anyway (top offender only) after this many ticks.
+    public int degradeMaxDeferTicks = 200;
+
+    // Who receives each notification. Rules are compiled once per player (join, team/game mode/op change).
+    public AudienceRule nightStartAudience = new AudienceRule();
+    public AudienceRule sunriseAudience = new AudienceRule();
+
+    public static final class AudienceRule {
+        public boolean includeSpectators = true;
+        public boolean includeCreative = true;
+        // Players with this permission level or higher are skipped. 5 = nobody (ops top out at 4).
+        public int excludePermissionLevelAtLeast = 5;
+        // Scoreboard team names whose members are skipped.
+        public List<String> excludeTeams = new ArrayList<>();
+    }
+
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
     private static final Path CONFIG_PATH = Paths.get("config", "nightnotifier.json");
 
@@ -60,6 +141,17 @@ public final class NightNotifierConfig {
         }
     }
 
+    /** Strict read for {@code /nightnotifier reload}: a missing, unreadable or malformed file is an error, not defaults. */
+    public static NightNotifierConfig load() throws IOException {
+        try (Reader r = Files.newBufferedReader(CONFIG_PATH)) {
+            NightNotifierConfig cfg = GSON.fromJson(r, NightNotifierConfig.class);
+            if (cfg == null) throw new IOException(CONFIG_PATH + " is empty");
+            return cfg;
+        } catch (JsonParseException e) {
+            throw new IOException("malformed " + CONFIG_PATH + ": " + e.getMessage(), e);
+        }
+    }
+
     public static void save(NightNotifierConfig cfg) {
         try {
             Files.createDirectories(CONFIG_PATH.getParent());
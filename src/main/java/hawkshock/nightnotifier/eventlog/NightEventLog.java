@@ -0,0 +1,285 @@
+package hawkshock.nightnotifier.eventlog;
+
+import com.google.gson.stream.JsonWriter;
+import hawkshock.nightnotifier.NightNotifier;
+import hawkshock.nightnotifier.api.NightSnapshot;
+import hawkshock.nightnotifier.metrics.NightMetrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Opt-in JSON Lines log of night decisions ({@code logs/nightnotifier/events.jsonl}).
+ *
+ * The server thread only offers {@link NightLogEntry}s to a lock-free {@link EventRing}; a daemon
+ * appender serializes them, writes and flushes, rotates the file by size or age and gzips the
+ * rotated file. A full ring drops the entry and counts it rather than ever blocking a tick.
+ */
+public final class NightEventLog {
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd-HHmmss");
+    private static final int STAMP_LENGTH = "yyyy-MM-dd-HHmmss".length();
+
+    private final Path dir;
+    private final Path file;
+    private final long maxBytes;
+    private final long maxAgeMillis;
+    private final int keepFiles;
+    private final EventRing<NightLogEntry> ring;
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread appender;
+    private BufferedWriter out;
+    private long written;
+    private long openedAt;
+
+    public NightEventLog(Path dir, int bufferSize, long maxBytes, int rotateHours, int keepFiles) {
+        this.dir = dir;
+        this.file = dir.resolve("events.jsonl");
+        this.maxBytes = Math.max(64 * 1024, maxBytes);
+        this.maxAgeMillis = rotateHours > 0 ? TimeUnit.HOURS.toMillis(rotateHours) : Long.MAX_VALUE;
+        this.keepFiles = Math.max(1, keepFiles);
+        this.ring = new EventRing<>(Math.max(16, bufferSize));
+    }
+
+    /**
+     * Start the appender. If a previous one is still draining after {@link #stop()}, waits for it
+     * first, since both would write to the same file; gives up (and stays stopped) if it will not exit.
+     */
+    public synchronized void start() {
+        if (running) return;
+        if (appender != null && !awaitAppender()) {
+            NightNotifier.LOGGER.warn("[NightNotifier] Event log appender from the last run is still busy; not starting a second one");
+            return;
+        }
+        running = true;
+        appender = new Thread(this::appendLoop, "NightNotifier-EventLog");
+        appender.setDaemon(true);
+        appender.start();
+    }
+
+    /** Drain what is queued, close the file and stop the appender. */
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(appender);
+        // Still set if it outlives the wait, so start() knows it has to wait for it.
+        awaitAppender();
+    }
+
+    // True once the appender thread has exited; it owns out until then.
+    private boolean awaitAppender() {
+        try {
+            appender.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (appender.isAlive()) return false;
+        appender = null;
+        return true;
+    }
+
+    public boolean enabled() {
+        return running;
+    }
+
+    /** Never blocks; returns false (and counts a drop) when the appender has fallen behind. */
+    public boolean log(NightLogEntry entry) {
+        if (!running) return false;
+        if (ring.offer(entry)) {
+            LockSupport.unpark(appender);
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    public long droppedEntries() {
+        return dropped.get();
+    }
+
+    private void appendLoop() {
+        while (true) {
+            boolean wrote = false;
+            try {
+                for (NightLogEntry e; (e = ring.poll()) != null; ) {
+                    write(e);
+                    wrote = true;
+                }
+                if (wrote) out.flush();
+            } catch (IOException | RuntimeException e) {
+                NightNotifier.LOGGER.warn("[NightNotifier] Event log write failed", e);
+                closeQuietly();
+            }
+            if (!running) break;
+            if (!wrote) LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+        }
+        closeQuietly();
+    }
+
+    private void write(NightLogEntry e) throws IOException {
+        String line = toJson(e);
+        // Bytes, not chars: names and world IDs can be multi-byte in UTF-8.
+        int bytes = line.getBytes(StandardCharsets.UTF_8).length + 1;
+        if (out == null) open();
+        long now = System.currentTimeMillis();
+        if (written > 0 && (written + bytes > maxBytes || now - openedAt >= maxAgeMillis)) {
+            rotate();
+        }
+        out.write(line);
+        out.write('\n');
+        written += bytes;
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(dir);
+        out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        written = Files.size(file);
+        // A file left from the previous run is aged from its first entry.
+        openedAt = written > 0 ? firstLineTime() : System.currentTimeMillis();
+    }
+
+    private long firstLineTime() {
+        try (var lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            String first = lines.findFirst().orElse("");
+            int i = first.indexOf("\"ts\":");
+            if (i < 0) return System.currentTimeMillis();
+            int end = i + 5;
+            while (end < first.length() && Character.isDigit(first.charAt(end))) end++;
+            return Long.parseLong(first.substring(i + 5, end));
+        } catch (IOException | RuntimeException e) {
+            return System.currentTimeMillis();
+        }
+    }
+
+    private void rotate() throws IOException {
+        out.close();
+        out = null;
+        String stamp = STAMP.format(Instant.ofEpochMilli(openedAt).atZone(ZoneId.systemDefault()));
+        Path rotated = dir.resolve("events-" + stamp + ".jsonl");
+        for (int n = 1; Files.exists(rotated) || Files.exists(rotated.resolveSibling(rotated.getFileName() + ".gz")); n++) {
+            rotated = dir.resolve("events-" + stamp + "-" + n + ".jsonl");
+        }
+        Files.move(file, rotated);
+        gzip(rotated);
+        prune();
+        open();
+    }
+
+    private static void gzip(Path src) {
+        Path gz = src.resolveSibling(src.getFileName() + ".gz");
+        try (InputStream in = Files.newInputStream(src);
+             OutputStream zip = new GZIPOutputStream(Files.newOutputStream(gz))) {
+            in.transferTo(zip);
+        } catch (IOException e) {
+            NightNotifier.LOGGER.warn("[NightNotifier] Failed to gzip {}", src, e);
+            return;
+        }
+        try {
+            Files.delete(src);
+        } catch (IOException ignored) {
+        }
+    }
+
+    // Keep the newest keepFiles rotated archives. Plain name order is wrong within a stamp
+    // ("events-<stamp>-1" sorts before "events-<stamp>"), so order by stamp, then collision counter.
+    private void prune() throws IOException {
+        List<Path> archives = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "events-*.jsonl.gz")) {
+            stream.forEach(archives::add);
+        }
+        if (archives.size() <= keepFiles) return;
+        archives.sort(Comparator.comparing(NightEventLog::archiveStamp).thenComparingInt(NightEventLog::archiveCounter));
+        for (Path old : archives.subList(0, archives.size() - keepFiles)) {
+            Files.deleteIfExists(old);
+        }
+    }
+
+    // "events-<stamp>[-<n>].jsonl.gz" -> "<stamp>"; the stamp has a fixed width.
+    private static String archiveStamp(Path archive) {
+        String name = archive.getFileName().toString();
+        int start = "events-".length();
+        return name.length() >= start + STAMP_LENGTH ? name.substring(start, start + STAMP_LENGTH) : name;
+    }
+
+    // The collision counter rotate() appends; 0 for the first archive of a stamp or an unknown name.
+    private static int archiveCounter(Path archive) {
+        String name = archive.getFileName().toString();
+        int start = "events-".length() + STAMP_LENGTH;
+        int end = name.indexOf(".jsonl", start);
+        if (end < 0 || end == start || name.charAt(start) != '-') return 0;
+        try {
+            return Integer.parseInt(name, start + 1, end, 10);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private void closeQuietly() {
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException ignored) {
+        }
+        out = null;
+    }
+
+    static String toJson(NightLogEntry e) throws IOException {
+        StringWriter sw = new StringWriter(256);
+        try (JsonWriter w = new JsonWriter(sw)) {
+            w.beginObject();
+            w.name("ts").value(e.epochMillis());
+            w.name("world").value(e.world());
+            w.name("gameTime").value(e.gameTime());
+            w.name("day").value(e.day());
+            w.name("event").value(e.event());
+            w.name("storm").value(e.storm());
+            if (e.sequenceId() != 0L) w.name("sequenceId").value(Long.toHexString(e.sequenceId()));
+            w.name("outcome").value(e.outcome());
+            w.name("audience").value(e.audience());
+            if (e.offenders() != null) {
+                w.name("offenders").beginArray();
+                for (NightSnapshot.Offender o : e.offenders()) {
+                    w.beginObject();
+                    w.name("uuid").value(o.uuid().toString());
+                    w.name("name").value(o.name());
+                    w.name("ticksSinceRest").value(o.ticksSinceRest());
+                    w.endObject();
+                }
+                w.endArray();
+            }
+            if (e.channels() != null) {
+                w.name("channels").beginObject();
+                NightMetrics.Channel[] all = NightMetrics.Channel.values();
+                for (int i = 0; i < all.length && i < e.channels().length; i++) {
+                    if (e.channels()[i] > 0) w.name(all[i].name().toLowerCase(Locale.ROOT)).value(e.channels()[i]);
+                }
+                w.endObject();
+                w.name("packets").value(e.packets());
+            }
+            if (e.collectNanos() > 0) w.name("collectMicros").value(e.collectNanos() / 1000);
+            if (e.broadcastNanos() > 0) w.name("broadcastMicros").value(e.broadcastNanos() / 1000);
+            w.endObject();
+        }
+        return sw.toString();
+    }
+}
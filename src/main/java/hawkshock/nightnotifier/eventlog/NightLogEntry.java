@@ -0,0 +1,28 @@
+package hawkshock.nightnotifier.eventlog;
+
+import hawkshock.nightnotifier.api.NightSnapshot;
+
+import java.util.List;
+
+/**
+ * One line of the event log. Built on the server thread from values already at hand; serialized to
+ * JSON by the appender thread.
+ *
+ * @param outcome  {@code sent}, {@code no_audience}, {@code no_offenders}, {@code deferred}, {@code expired} or {@code transition}
+ * @param channels notifications per {@link hawkshock.nightnotifier.metrics.NightMetrics.Channel}, or null
+ */
+public record NightLogEntry(long epochMillis,
+                            String world,
+                            long gameTime,
+                            long day,
+                            String event,
+                            boolean storm,
+                            long sequenceId,
+                            String outcome,
+                            int audience,
+                            List<NightSnapshot.Offender> offenders,
+                            int[] channels,
+                            int packets,
+                            long collectNanos,
+                            long broadcastNanos) {
+}
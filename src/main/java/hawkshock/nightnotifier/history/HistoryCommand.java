@@ -0,0 +1,91 @@
+package hawkshock.nightnotifier.history;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.command.argument.EntityArgumentType;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.Text;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static net.minecraft.server.command.CommandManager.argument;
+import static net.minecraft.server.command.CommandManager.literal;
+
+/**
+ * {@code /nightnotifier history [top [n] | player <target>]} - all-time insomnia stats served from the
+ * in-memory {@link HistorySummary}; never touches the log file.
+ */
+public final class HistoryCommand {
+    private HistoryCommand() {}
+
+    private static final int DEFAULT_TOP = 5;
+
+    public static void register(SleepHistory history) {
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) ->
+                dispatcher.register(literal("nightnotifier")
+                        .then(literal("history")
+                                .executes(ctx -> player(ctx, history, ctx.getSource().getPlayerOrThrow()))
+                                .then(literal("top")
+                                        .executes(ctx -> top(ctx, history, DEFAULT_TOP))
+                                        .then(argument("n", IntegerArgumentType.integer(1, 50))
+                                                .executes(ctx -> top(ctx, history, IntegerArgumentType.getInteger(ctx, "n")))))
+                                .then(literal("player")
+                                        .then(argument("target", EntityArgumentType.player())
+                                                .executes(ctx -> player(ctx, history,
+                                                        EntityArgumentType.getPlayer(ctx, "target"))))))));
+    }
+
+    private static int top(CommandContext<ServerCommandSource> ctx, SleepHistory history, int n) {
+        HistorySummary summary = summary(ctx, history);
+        if (summary == null) return 0;
+        List<HistorySummary.Entry> top = summary.topBySkipped(n);
+        if (top.isEmpty()) {
+            ctx.getSource().sendFeedback(() -> Text.literal("Night Notifier: no sleep history yet."), false);
+            return 0;
+        }
+        StringBuilder sb = new StringBuilder("Night Notifier: most nights skipped");
+        int rank = 1;
+        for (HistorySummary.Entry e : top) {
+            sb.append('\n').append(rank++).append(". ").append(name(ctx, e.player()))
+                    .append(" - ").append(e.history().nightsSkipped()).append(" skipped, longest awake ")
+                    .append(days(e.history().longestAwakeTicks()));
+        }
+        String text = sb.toString();
+        ctx.getSource().sendFeedback(() -> Text.literal(text), false);
+        return top.size();
+    }
+
+    private static int player(CommandContext<ServerCommandSource> ctx, SleepHistory history, ServerPlayerEntity target)
+            throws CommandSyntaxException {
+        HistorySummary summary = summary(ctx, history);
+        if (summary == null) return 0;
+        HistorySummary.PlayerHistory h = summary.get(target.getUuid());
+        String name = target.getName().getString();
+        ctx.getSource().sendFeedback(() -> Text.literal("Night Notifier: " + name + " skipped " + h.nightsSkipped()
+                + " night(s), slept " + h.sleeps() + " time(s), longest awake " + days(h.longestAwakeTicks())), false);
+        return 1;
+    }
+
+    private static HistorySummary summary(CommandContext<ServerCommandSource> ctx, SleepHistory history) {
+        SleepHistoryLog log = history.log();
+        if (log == null) {
+            ctx.getSource().sendError(Text.literal("Sleep history is disabled (enableSleepHistory)."));
+            return null;
+        }
+        return log.summary();
+    }
+
+    private static String name(CommandContext<ServerCommandSource> ctx, UUID id) {
+        ServerPlayerEntity online = ctx.getSource().getServer().getPlayerManager().getPlayer(id);
+        return online != null ? online.getName().getString() : id.toString();
+    }
+
+    private static String days(int ticks) {
+        return String.format(Locale.ROOT, "%.1f days", ticks / 24000.0);
+    }
+}
@@ -0,0 +1,50 @@
+package hawkshock.nightnotifier.history;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * One fixed-size (32 byte) entry of the sleep-history log:
+ * game time (8) | uuid most (8) | uuid least (8) | kind (1) | reserved (3) | value (4).
+ */
+public record HistoryRecord(long gameTime, long uuidMost, long uuidLeast, byte kind, int value) {
+    public static final int BYTES = 32;
+
+    /** World-level nightfall; value = offenders online. No player. */
+    public static final byte NIGHT = 1;
+    /** A player was awake past the rest threshold at nightfall; value = ticks since rest. */
+    public static final byte OFFENDER = 2;
+    /** A player got into bed; value = ticks since rest just before sleeping (the streak that ended). */
+    public static final byte SLEEP = 3;
+    /** Compaction carry-over of a player's all-time nights skipped; value = count. */
+    public static final byte SUMMARY_SKIPPED = 10;
+    /** Compaction carry-over of a player's longest awake streak; value = ticks. */
+    public static final byte SUMMARY_LONGEST = 11;
+    /** Compaction carry-over of a player's sleep count; value = count. */
+    public static final byte SUMMARY_SLEEPS = 12;
+
+    public static HistoryRecord of(long gameTime, UUID player, byte kind, int value) {
+        long most = player != null ? player.getMostSignificantBits() : 0L;
+        long least = player != null ? player.getLeastSignificantBits() : 0L;
+        return new HistoryRecord(gameTime, most, least, kind, value);
+    }
+
+    public UUID player() {
+        return uuidMost == 0L && uuidLeast == 0L ? null : new UUID(uuidMost, uuidLeast);
+    }
+
+    public void writeTo(ByteBuffer buf, int offset) {
+        buf.putLong(offset, gameTime);
+        buf.putLong(offset + 8, uuidMost);
+        buf.putLong(offset + 16, uuidLeast);
+        buf.put(offset + 24, kind);
+        buf.put(offset + 25, (byte) 0);
+        buf.putShort(offset + 26, (short) 0);
+        buf.putInt(offset + 28, value);
+    }
+
+    public static HistoryRecord readFrom(ByteBuffer buf, int offset) {
+        return new HistoryRecord(buf.getLong(offset), buf.getLong(offset + 8), buf.getLong(offset + 16),
+                buf.get(offset + 24), buf.getInt(offset + 28));
+    }
+}
@@ -0,0 +1,71 @@
+package hawkshock.nightnotifier.history;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory per-player aggregate of the sleep-history log, rebuilt by replaying the log at startup
+ * and kept current by the writer thread. Entries are immutable and swapped atomically, so queries
+ * from the server thread never block the writer.
+ */
+public final class HistorySummary {
+    public record PlayerHistory(int nightsSkipped, int longestAwakeTicks, int sleeps, long lastSeenGameTime) {
+        static final PlayerHistory EMPTY = new PlayerHistory(0, 0, 0, 0L);
+    }
+
+    public record Entry(UUID player, PlayerHistory history) {}
+
+    private final Map<UUID, PlayerHistory> players = new ConcurrentHashMap<>();
+
+    void apply(HistoryRecord r) {
+        UUID id = r.player();
+        if (id == null) return;
+        players.compute(id, (k, old) -> {
+            PlayerHistory h = old != null ? old : PlayerHistory.EMPTY;
+            long seen = Math.max(h.lastSeenGameTime(), r.gameTime());
+            return switch (r.kind()) {
+                case HistoryRecord.OFFENDER -> new PlayerHistory(h.nightsSkipped() + 1,
+                        Math.max(h.longestAwakeTicks(), r.value()), h.sleeps(), seen);
+                case HistoryRecord.SLEEP -> new PlayerHistory(h.nightsSkipped(),
+                        Math.max(h.longestAwakeTicks(), r.value()), h.sleeps() + 1, seen);
+                case HistoryRecord.SUMMARY_SKIPPED -> new PlayerHistory(h.nightsSkipped() + r.value(),
+                        h.longestAwakeTicks(), h.sleeps(), seen);
+                case HistoryRecord.SUMMARY_LONGEST -> new PlayerHistory(h.nightsSkipped(),
+                        Math.max(h.longestAwakeTicks(), r.value()), h.sleeps(), seen);
+                case HistoryRecord.SUMMARY_SLEEPS -> new PlayerHistory(h.nightsSkipped(),
+                        h.longestAwakeTicks(), h.sleeps() + r.value(), seen);
+                default -> h;
+            };
+        });
+    }
+
+    void clear() {
+        players.clear();
+    }
+
+    Map<UUID, PlayerHistory> view() {
+        return players;
+    }
+
+    public PlayerHistory get(UUID player) {
+        PlayerHistory h = players.get(player);
+        return h != null ? h : PlayerHistory.EMPTY;
+    }
+
+    /** Top {@code n} players by nights skipped, ties broken by longest awake streak. */
+    public List<Entry> topBySkipped(int n) {
+        return top(n, Comparator.comparingInt((Entry e) -> e.history().nightsSkipped())
+                .thenComparingInt(e -> e.history().longestAwakeTicks()));
+    }
+
+    private List<Entry> top(int n, Comparator<Entry> order) {
+        List<Entry> all = new ArrayList<>(players.size());
+        players.forEach((id, h) -> all.add(new Entry(id, h)));
+        all.sort(order.reversed());
+        return all.size() > n ? List.copyOf(all.subList(0, Math.max(0, n))) : List.copyOf(all);
+    }
+}
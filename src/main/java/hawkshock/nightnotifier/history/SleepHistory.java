@@ -0,0 +1,96 @@
+package hawkshock.nightnotifier.history;
+
+import hawkshock.nightnotifier.NightNotifier;
+import hawkshock.nightnotifier.api.NightNotifierEvents;
+import hawkshock.nightnotifier.config.NightNotifierConfig;
+import net.fabricmc.fabric.api.entity.event.v1.EntitySleepEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.stat.Stats;
+import net.minecraft.util.WorldSavePath;
+import net.minecraft.world.World;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+/**
+ * Feeds night and sleep events into the per-world {@link SleepHistoryLog}
+ * ({@code <world>/nightnotifier/history.bin}). The server thread only builds records and
+ * offers them to the log; all file work happens on the log's writer thread.
+ */
+public final class SleepHistory {
+    private final Supplier<NightNotifierConfig> cfg;
+    private volatile SleepHistoryLog log;
+
+    public SleepHistory(Supplier<NightNotifierConfig> cfg) {
+        this.cfg = cfg;
+    }
+
+    public void register() {
+        ServerLifecycleEvents.SERVER_STARTED.register(this::open);
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> close());
+        NightNotifierEvents.NIGHT_START.register(this::onNightStart);
+        EntitySleepEvents.START_SLEEPING.register((entity, pos) -> {
+            if (entity instanceof ServerPlayerEntity p) onSleep(p);
+        });
+        HistoryCommand.register(this);
+    }
+
+    /** The active log, or null when history is disabled or failed to open. */
+    public SleepHistoryLog log() {
+        return log;
+    }
+
+    private void open(MinecraftServer server) {
+        NightNotifierConfig c = cfg.get();
+        if (!c.enableSleepHistory) return;
+        Path file = server.getSavePath(WorldSavePath.ROOT).resolve("nightnotifier").resolve("history.bin");
+        SleepHistoryLog opened = new SleepHistoryLog(file, c.historyCompactAfterRecords, c.historyRetainRecords);
+        try {
+            opened.open();
+            log = opened;
+            NightNotifier.LOGGER.info("[NightNotifier] Sleep history loaded ({} players)", opened.summary().view().size());
+        } catch (IOException e) {
+            opened.close();
+            NightNotifier.LOGGER.warn("[NightNotifier] Sleep history disabled: {}", e.toString());
+        }
+    }
+
+    private void close() {
+        SleepHistoryLog l = log;
+        log = null;
+        if (l != null) l.close();
+    }
+
+    private void onNightStart(ServerWorld world, boolean storm) {
+        SleepHistoryLog l = log;
+        if (l == null || storm) return;
+        long now = world.getTime();
+        int threshold = cfg.get().restThresholdTicks;
+        int offenders = 0;
+        for (ServerPlayerEntity p : world.getPlayers()) {
+            if (p.isSpectator()) continue;
+            int tsr = timeSinceRest(p);
+            if (tsr >= threshold) {
+                l.append(HistoryRecord.of(now, p.getUuid(), HistoryRecord.OFFENDER, tsr));
+                offenders++;
+            }
+        }
+        l.append(HistoryRecord.of(now, null, HistoryRecord.NIGHT, offenders));
+    }
+
+    private void onSleep(ServerPlayerEntity player) {
+        SleepHistoryLog l = log;
+        if (l == null || player.getEntityWorld().getRegistryKey() != World.OVERWORLD) return;
+        // The stat is reset once the player is actually asleep, so this is the streak being ended.
+        l.append(HistoryRecord.of(player.getEntityWorld().getTime(), player.getUuid(), HistoryRecord.SLEEP,
+                timeSinceRest(player)));
+    }
+
+    private static int timeSinceRest(ServerPlayerEntity p) {
+        return p.getStatHandler().getStat(Stats.CUSTOM.getOrCreateStat(Stats.TIME_SINCE_REST));
+    }
+}
@@ -0,0 +1,264 @@
+package hawkshock.nightnotifier.history;
+
+import hawkshock.nightnotifier.NightNotifier;
+
+import sun.misc.Unsafe;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only sleep-history log of fixed {@link HistoryRecord}s backed by a memory-mapped file.
+ *
+ * Layout: 16 byte header (magic, version, record count) followed by 32 byte records. The server
+ * thread only offers records to a bounded queue; a single background writer appends them to the
+ * mapping, keeps {@link HistorySummary} current and periodically compacts the file by folding old
+ * records into per-player summary records. On open the summary is rebuilt by one sequential scan.
+ */
+public final class SleepHistoryLog {
+    private static final int MAGIC = 0x4E4E484C; // "NNHL"
+    private static final int VERSION = 1;
+    private static final int HEADER = 16;
+    private static final long GROW_BYTES = 1L << 20;
+    // Queued by close() behind the pending records; the writer stops when it reaches it.
+    private static final HistoryRecord STOP = new HistoryRecord(0L, 0L, 0L, (byte) 0, 0);
+
+    private final Path file;
+    private long compactAfterRecords;
+    private final int retainRecords;
+    private final HistorySummary summary = new HistorySummary();
+    private final BlockingQueue<HistoryRecord> queue = new ArrayBlockingQueue<>(4096);
+    private final AtomicLong dropped = new AtomicLong();
+
+    private FileChannel channel;
+    private MappedByteBuffer map;
+    private long count;
+    private Thread writer;
+    private volatile boolean running;
+
+    public SleepHistoryLog(Path file, int compactAfterRecords, int retainRecords) {
+        this.file = file;
+        this.compactAfterRecords = Math.max(1000, compactAfterRecords);
+        this.retainRecords = Math.max(0, (int) Math.min(retainRecords, this.compactAfterRecords / 2));
+    }
+
+    /** Open (or create) the log, rebuild the summary and start the writer thread. */
+    public void open() throws IOException {
+        Files.createDirectories(file.getParent());
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size < HEADER) {
+            remap(HEADER + GROW_BYTES);
+            map.putInt(0, MAGIC);
+            map.putInt(4, VERSION);
+            map.putLong(8, 0L);
+            count = 0;
+        } else {
+            remap(size);
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                throw new IOException("Not a NightNotifier history log: " + file);
+            }
+            // Trust the header, but never past the end of the file.
+            count = Math.min(map.getLong(8), (size - HEADER) / HistoryRecord.BYTES);
+        }
+        rebuildSummary();
+
+        running = true;
+        writer = new Thread(this::writeLoop, "NightNotifier-History");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Non-blocking; drops (and counts) the record if the writer has fallen far behind. */
+    public void append(HistoryRecord record) {
+        if (!running) return;
+        if (!queue.offer(record)) dropped.incrementAndGet();
+    }
+
+    public HistorySummary summary() {
+        return summary;
+    }
+
+    public long droppedRecords() {
+        return dropped.get();
+    }
+
+    /**
+     * Drain pending records, stop the writer and close the file. The writer is woken by a queued
+     * {@link #STOP} rather than an interrupt, which would close the channel under a compaction's
+     * I/O. If it does not finish in time the file is left open to it rather than unmapped under it.
+     */
+    public void close() {
+        running = false;
+        if (writer != null) {
+            try {
+                if (!queue.offer(STOP, 5, TimeUnit.SECONDS)) {
+                    NightNotifier.LOGGER.warn("[NightNotifier] History writer not draining; abandoning it");
+                    return;
+                }
+                writer.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (writer.isAlive()) {
+                NightNotifier.LOGGER.warn("[NightNotifier] History writer still busy after 5s; leaving the log open");
+                return;
+            }
+            writer = null;
+        }
+        try {
+            if (map != null) map.force();
+            if (channel != null) channel.close();
+        } catch (IOException e) {
+            NightNotifier.LOGGER.warn("[NightNotifier] Failed to close history log", e);
+        }
+        if (map != null) unmap(map);
+        map = null;
+        channel = null;
+    }
+
+    private void writeLoop() {
+        boolean stop = false;
+        while (!stop) {
+            try {
+                HistoryRecord r = queue.poll(60, TimeUnit.SECONDS);
+                stop = r == STOP;
+                if (r != null && !stop) {
+                    write(r);
+                    // Batch whatever else is already queued before syncing the header.
+                    for (HistoryRecord next; (next = queue.poll()) != null; ) {
+                        if (next == STOP) {
+                            stop = true;
+                            break;
+                        }
+                        write(next);
+                    }
+                    map.putLong(8, count);
+                }
+                if (count > compactAfterRecords) {
+                    try {
+                        compact();
+                    } catch (IOException e) {
+                        // Back off instead of retrying on every record (e.g. file locked on Windows).
+                        compactAfterRecords = count * 2;
+                        throw e;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Nothing interrupts the writer; treat it as a stop.
+                return;
+            } catch (IOException | RuntimeException e) {
+                NightNotifier.LOGGER.warn("[NightNotifier] History log write failed", e);
+            }
+        }
+    }
+
+    private void write(HistoryRecord r) throws IOException {
+        long offset = HEADER + count * HistoryRecord.BYTES;
+        if (offset + HistoryRecord.BYTES > map.capacity()) remap(offset + GROW_BYTES);
+        r.writeTo(map, (int) offset);
+        count++;
+        summary.apply(r);
+    }
+
+    private void remap(long size) throws IOException {
+        if (size > Integer.MAX_VALUE) throw new IOException("History log too large; compaction not keeping up");
+        MappedByteBuffer old = map;
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (old != null) unmap(old);
+    }
+
+    /**
+     * Release a mapping now instead of whenever it is collected: Windows refuses to replace or
+     * truncate a file that is still mapped. The buffer must not be touched afterwards.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Field f = Unsafe.class.getDeclaredField("theUnsafe");
+            f.setAccessible(true);
+            ((Unsafe) f.get(null)).invokeCleaner(buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Left to the GC; only the Windows replace in compact() is affected.
+            NightNotifier.LOGGER.debug("[NightNotifier] Could not unmap history log buffer", e);
+        }
+    }
+
+    private void rebuildSummary() {
+        summary.clear();
+        for (long i = 0; i < count; i++) {
+            summary.apply(HistoryRecord.readFrom(map, (int) (HEADER + i * HistoryRecord.BYTES)));
+        }
+    }
+
+    /**
+     * Fold everything except the newest {@code retainRecords} into per-player summary records and
+     * rewrite the file. Writer thread only.
+     */
+    private void compact() throws IOException {
+        long keepFrom = Math.max(0, count - retainRecords);
+
+        // Summarise the records being dropped.
+        HistorySummary folded = new HistorySummary();
+        for (long i = 0; i < keepFrom; i++) {
+            folded.apply(HistoryRecord.readFrom(map, (int) (HEADER + i * HistoryRecord.BYTES)));
+        }
+        List<HistoryRecord> out = new ArrayList<>();
+        for (Map.Entry<UUID, HistorySummary.PlayerHistory> e : folded.view().entrySet()) {
+            HistorySummary.PlayerHistory h = e.getValue();
+            long t = h.lastSeenGameTime();
+            if (h.nightsSkipped() > 0) out.add(HistoryRecord.of(t, e.getKey(), HistoryRecord.SUMMARY_SKIPPED, h.nightsSkipped()));
+            if (h.longestAwakeTicks() > 0) out.add(HistoryRecord.of(t, e.getKey(), HistoryRecord.SUMMARY_LONGEST, h.longestAwakeTicks()));
+            if (h.sleeps() > 0) out.add(HistoryRecord.of(t, e.getKey(), HistoryRecord.SUMMARY_SLEEPS, h.sleeps()));
+        }
+
+        long newCount = out.size() + (count - keepFrom);
+        Path tmp = file.resolveSibling(file.getFileName() + ".compact");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            header.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, newCount);
+            ch.write(header, 0);
+            ByteBuffer buf = ByteBuffer.allocate(HistoryRecord.BYTES);
+            long pos = HEADER;
+            for (HistoryRecord r : out) {
+                r.writeTo(buf, 0);
+                buf.clear();
+                pos += ch.write(buf, pos);
+            }
+            for (long i = keepFrom; i < count; i++) {
+                HistoryRecord.readFrom(map, (int) (HEADER + i * HistoryRecord.BYTES)).writeTo(buf, 0);
+                buf.clear();
+                pos += ch.write(buf, pos);
+            }
+            ch.force(true);
+        }
+
+        map.force();
+        unmap(map);
+        map = null;
+        channel.close();
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            remap(Math.max(channel.size(), HEADER + GROW_BYTES));
+            count = Math.min(map.getLong(8), (channel.size() - HEADER) / HistoryRecord.BYTES);
+        }
+        NightNotifier.LOGGER.info("[NightNotifier] Compacted sleep history to {} records", count);
+    }
+}
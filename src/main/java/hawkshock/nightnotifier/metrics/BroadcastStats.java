@@ -0,0 +1,17 @@
+package hawkshock.nightnotifier.metrics;
+
+/**
+ * What one broadcast actually sent. Filled on the server thread while sending, then read by the JFR
+ * event and the event log. Every {@link #notified} also feeds the process-wide {@link NightMetrics}.
+ */
+public final class BroadcastStats {
+    public final int[] channels = new int[NightMetrics.Channel.values().length];
+    public int packets;
+    public int moddedRecipients;
+    public long nanos;
+
+    public void notified(NightMetrics.Channel channel) {
+        channels[channel.ordinal()]++;
+        NightMetrics.notified(channel);
+    }
+}
@@ -0,0 +1,36 @@
+package hawkshock.nightnotifier.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Duration JFR event around one notification broadcast. Disabled unless enabled in the recording settings. */
+@Name("nightnotifier.Broadcast")
+@Label("Broadcast")
+@Category("NightNotifier")
+@Description("Composition and delivery of one night notification to its audience")
+@Enabled(false)
+public final class JfrBroadcast extends jdk.jfr.Event {
+    @Label("Event Type")
+    public String eventType;
+
+    @Label("Recipients")
+    public int recipients;
+
+    @Label("Modded Recipients")
+    public int moddedRecipients;
+
+    @Label("Offenders")
+    public int offenders;
+
+    @Label("Packets")
+    public int packets;
+
+    @Label("Payload Bytes")
+    @Description("Approximate bytes of message text sent, summed over recipients")
+    @DataAmount
+    public long payloadBytes;
+}
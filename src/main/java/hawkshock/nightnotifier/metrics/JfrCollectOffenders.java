@@ -0,0 +1,19 @@
+package hawkshock.nightnotifier.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Duration JFR event around one offender scan. Disabled unless enabled in the recording settings. */
+@Name("nightnotifier.CollectOffenders")
+@Label("Collect Offenders")
+@Category("NightNotifier")
+@Enabled(false)
+public final class JfrCollectOffenders extends jdk.jfr.Event {
+    @Label("Players Scanned")
+    public int playersScanned;
+
+    @Label("Offenders")
+    public int offenders;
+}
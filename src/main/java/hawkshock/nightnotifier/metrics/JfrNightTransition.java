@@ -0,0 +1,39 @@
+package hawkshock.nightnotifier.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Instant JFR event for each night transition. Disabled unless enabled in the recording settings. */
+@Name("nightnotifier.NightTransition")
+@Label("Night Transition")
+@Category("NightNotifier")
+@Description("Sleep window opened, sunrise warning window began, or sleep window closed")
+@Enabled(false)
+@StackTrace(false)
+public final class JfrNightTransition extends jdk.jfr.Event {
+    @Label("Kind")
+    public String kind;
+
+    @Label("Storm")
+    public boolean storm;
+
+    @Label("Day")
+    public long day;
+
+    @Label("Time Of Day")
+    public long timeOfDay;
+
+    public static void emit(String kind, boolean storm, long day, long timeOfDay) {
+        JfrNightTransition e = new JfrNightTransition();
+        if (!e.shouldCommit()) return;
+        e.kind = kind;
+        e.storm = storm;
+        e.day = day;
+        e.timeOfDay = timeOfDay;
+        e.commit();
+    }
+}
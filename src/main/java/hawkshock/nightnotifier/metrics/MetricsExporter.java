@@ -0,0 +1,125 @@
+package hawkshock.nightnotifier.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import hawkshock.nightnotifier.NightNotifier;
+import hawkshock.nightnotifier.api.NightNotifierApi;
+import hawkshock.nightnotifier.api.NightSnapshot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Prometheus text-format endpoint ({@code GET /metrics}) on the JDK's built-in HTTP server.
+ *
+ * The HTTP thread only reads {@link NightMetrics} adders and the published {@link NightSnapshot};
+ * it never touches the world, players or any other game state.
+ */
+public final class MetricsExporter {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    private HttpServer http;
+    private ExecutorService executor;
+
+    public synchronized void start(String host, int port) throws IOException {
+        if (http != null) return;
+        HttpServer server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "NightNotifier-Metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", this::handle);
+        server.start();
+        http = server;
+        NightNotifier.LOGGER.info("[NightNotifier] Metrics exporter listening on http://{}:{}/metrics", host, port);
+    }
+
+    public synchronized void stop() {
+        if (http == null) return;
+        http.stop(0);
+        executor.shutdownNow();
+        http = null;
+        executor = null;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    static String render() {
+        StringBuilder sb = new StringBuilder(2048);
+
+        header(sb, "nightnotifier_phase_seconds", "summary", "Time spent per NightNotifier phase.");
+        for (LatencyHistogram h : NightMetrics.PHASES) {
+            for (double q : QUANTILES) {
+                sb.append("nightnotifier_phase_seconds{phase=\"").append(h.name()).append("\",quantile=\"")
+                        .append(q).append("\"} ").append(seconds(h.percentile(q * 100))).append('\n');
+            }
+            sb.append("nightnotifier_phase_seconds_sum{phase=\"").append(h.name()).append("\"} ")
+                    .append(seconds(h.totalNanos())).append('\n');
+            sb.append("nightnotifier_phase_seconds_count{phase=\"").append(h.name()).append("\"} ")
+                    .append(h.count()).append('\n');
+        }
+        header(sb, "nightnotifier_phase_max_seconds", "gauge", "Slowest single run per phase since the last reset.");
+        for (LatencyHistogram h : NightMetrics.PHASES) {
+            sb.append("nightnotifier_phase_max_seconds{phase=\"").append(h.name()).append("\"} ")
+                    .append(seconds(h.maxNanos())).append('\n');
+        }
+
+        header(sb, "nightnotifier_notifications_total", "counter", "Notifications delivered, by channel.");
+        for (NightMetrics.Channel c : NightMetrics.Channel.values()) {
+            sb.append("nightnotifier_notifications_total{channel=\"").append(c.name().toLowerCase(Locale.ROOT))
+                    .append("\"} ").append(NightMetrics.notifications(c)).append('\n');
+        }
+        header(sb, "nightnotifier_notifications_dropped_total", "counter", "Notifications not delivered, by reason.");
+        sb.append("nightnotifier_notifications_dropped_total{reason=\"budget\"} ").append(NightMetrics.BUDGET_DROPS.sum()).append('\n');
+
+        counter(sb, "nightnotifier_packets_sent_total", "Packets sent by NightNotifier.", NightMetrics.PACKETS_SENT.sum());
+        counter(sb, "nightnotifier_events_fired_total", "API events fired.", NightMetrics.EVENTS_FIRED.sum());
+        counter(sb, "nightnotifier_offenders_scanned_total", "Players checked by offender scans.", NightMetrics.OFFENDERS_SCANNED.sum());
+        counter(sb, "nightnotifier_degraded_broadcasts_total", "Broadcasts sent below full fidelity under tick pressure.", NightMetrics.DEGRADED_BROADCASTS.sum());
+        counter(sb, "nightnotifier_deferred_broadcasts_total", "Broadcasts deferred under tick pressure.", NightMetrics.DEFERRED_BROADCASTS.sum());
+        counter(sb, "nightnotifier_expired_broadcasts_total", "Deferred broadcasts dropped because the night ended first.", NightMetrics.EXPIRED_BROADCASTS.sum());
+        counter(sb, "nightnotifier_config_reloads_total", "Successful config reloads.", NightMetrics.CONFIG_RELOADS.sum());
+
+        NightSnapshot snap = NightNotifierApi.snapshot();
+        header(sb, "nightnotifier_offenders_online", "gauge", "Online overworld players past the rest threshold.");
+        sb.append("nightnotifier_offenders_online ").append(snap.offenders().size()).append('\n');
+        header(sb, "nightnotifier_can_sleep", "gauge", "1 while the overworld sleep window is open.");
+        sb.append("nightnotifier_can_sleep ").append(snap.canSleep() ? 1 : 0).append('\n');
+        return sb.toString();
+    }
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void counter(StringBuilder sb, String name, String help, long value) {
+        header(sb, name, "counter", help);
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+}
@@ -0,0 +1,83 @@
+package hawkshock.nightnotifier.metrics;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide timing histograms and counters for NightNotifier's own work.
+ *
+ * Recording is a handful of {@link LongAdder} increments and never allocates, so it stays on in
+ * production. Read through {@code /nightnotifier stats} and the optional {@link MetricsExporter}.
+ */
+public final class NightMetrics {
+    private NightMetrics() {}
+
+    /** Overworld tick handler, whole body (including sends on transition ticks). */
+    public static final LatencyHistogram WORLD_TICK = new LatencyHistogram("world_tick");
+    /** Offender scan and sort. */
+    public static final LatencyHistogram COLLECT_OFFENDERS = new LatencyHistogram("collect_offenders");
+    /** Message composition plus per-player sends for one event. */
+    public static final LatencyHistogram BROADCAST = new LatencyHistogram("broadcast");
+    /** Client handshake reply on the server thread. */
+    public static final LatencyHistogram HANDSHAKE = new LatencyHistogram("handshake");
+
+    public static final List<LatencyHistogram> PHASES = List.of(WORLD_TICK, COLLECT_OFFENDERS, BROADCAST, HANDSHAKE);
+
+    public static final LongAdder PACKETS_SENT = new LongAdder();
+    public static final LongAdder EVENTS_FIRED = new LongAdder();
+    public static final LongAdder OFFENDERS_SCANNED = new LongAdder();
+
+    /** Delivery channels a notification can go out on. */
+    public enum Channel { PAYLOAD, LOCAL_BRIDGE, TITLE, SUBTITLE, ACTION_BAR, SOUND, COUNTDOWN }
+
+    private static final LongAdder[] NOTIFICATIONS = new LongAdder[Channel.values().length];
+    static {
+        for (int i = 0; i < NOTIFICATIONS.length; i++) NOTIFICATIONS[i] = new LongAdder();
+    }
+
+    /** Recipients left out of a broadcast because their notification budget was spent. */
+    public static final LongAdder BUDGET_DROPS = new LongAdder();
+    /**
+     * Overlay payloads the client dropped as duplicates. Client-side only: it counts in singleplayer and
+     * LAN hosts, is always 0 on a dedicated server and is therefore not exported.
+     */
+    public static final LongAdder DEDUP_DROPS = new LongAdder();
+    /** Broadcasts sent below full fidelity because of server tick pressure. */
+    public static final LongAdder DEGRADED_BROADCASTS = new LongAdder();
+    /** Broadcasts held back to a later tick because of server tick pressure. */
+    public static final LongAdder DEFERRED_BROADCASTS = new LongAdder();
+    /** Deferred broadcasts dropped because their night ended before tick pressure eased. */
+    public static final LongAdder EXPIRED_BROADCASTS = new LongAdder();
+    /** Successful {@code /nightnotifier reload}s. */
+    public static final LongAdder CONFIG_RELOADS = new LongAdder();
+
+    public static void notified(Channel channel) {
+        NOTIFICATIONS[channel.ordinal()].increment();
+    }
+
+    public static long notifications(Channel channel) {
+        return NOTIFICATIONS[channel.ordinal()].sum();
+    }
+
+    private static volatile long since = System.nanoTime();
+
+    /** Nanos since start or the last {@link #reset()}. */
+    public static long windowNanos() {
+        return System.nanoTime() - since;
+    }
+
+    public static void reset() {
+        for (LatencyHistogram h : PHASES) h.reset();
+        PACKETS_SENT.reset();
+        EVENTS_FIRED.reset();
+        OFFENDERS_SCANNED.reset();
+        for (LongAdder n : NOTIFICATIONS) n.reset();
+        BUDGET_DROPS.reset();
+        DEDUP_DROPS.reset();
+        DEGRADED_BROADCASTS.reset();
+        DEFERRED_BROADCASTS.reset();
+        EXPIRED_BROADCASTS.reset();
+        CONFIG_RELOADS.reset();
+        since = System.nanoTime();
+    }
+}
@@ -0,0 +1,53 @@
+package hawkshock.nightnotifier.metrics;
+
+import com.mojang.brigadier.context.CommandContext;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+
+import java.util.Locale;
+
+import static net.minecraft.server.command.CommandManager.literal;
+
+/**
+ * {@code /nightnotifier stats [reset]} - ops only. Per-phase latency percentiles and counters from
+ * {@link NightMetrics} since startup or the last reset.
+ */
+public final class StatsCommand {
+    private StatsCommand() {}
+
+    public static void register() {
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) ->
+                dispatcher.register(literal("nightnotifier")
+                        .then(literal("stats")
+                                .requires(src -> src.hasPermissionLevel(2))
+                                .executes(StatsCommand::show)
+                                .then(literal("reset").executes(ctx -> {
+                                    NightMetrics.reset();
+                                    ctx.getSource().sendFeedback(() -> Text.literal("Night Notifier: stats reset."), true);
+                                    return 1;
+                                })))));
+    }
+
+    private static int show(CommandContext<ServerCommandSource> ctx) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "Night Notifier stats (last %ds)",
+                NightMetrics.windowNanos() / 1_000_000_000L));
+        for (LatencyHistogram h : NightMetrics.PHASES) {
+            sb.append(String.format(Locale.ROOT, "\n%s: n=%d p50=%s p90=%s p99=%s max=%s total=%s",
+                    h.name(), h.count(), micros(h.percentile(50)), micros(h.percentile(90)),
+                    micros(h.percentile(99)), micros(h.maxNanos()), micros(h.totalNanos())));
+        }
+        sb.append(String.format(Locale.ROOT, "\npackets=%d events=%d offenders_scanned=%d degraded=%d deferred=%d expired=%d",
+                NightMetrics.PACKETS_SENT.sum(), NightMetrics.EVENTS_FIRED.sum(), NightMetrics.OFFENDERS_SCANNED.sum(),
+                NightMetrics.DEGRADED_BROADCASTS.sum(), NightMetrics.DEFERRED_BROADCASTS.sum(),
+                NightMetrics.EXPIRED_BROADCASTS.sum()));
+        String text = sb.toString();
+        ctx.getSource().sendFeedback(() -> Text.literal(text), false);
+        return 1;
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.1fus", nanos / 1000.0);
+    }
+}
@@ -1,3 +0,0 @@
-// Mixin disabled for crash isolation test.
-package hawkshock.nightnotifier.mixin;
-public class ExampleMixin {}
\ No newline at end of file
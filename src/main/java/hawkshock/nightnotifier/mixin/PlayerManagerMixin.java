@@ -0,0 +1,18 @@
+package hawkshock.nightnotifier.mixin;
+
+import hawkshock.nightnotifier.server.AudienceIndex;
+import net.minecraft.server.PlayerManager;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+// Op/deop resends the command tree; use that to re-evaluate permission-based audience rules.
+@Mixin(PlayerManager.class)
+public abstract class PlayerManagerMixin {
+    @Inject(method = "sendCommandTree(Lnet/minecraft/server/network/ServerPlayerEntity;)V", at = @At("TAIL"), require = 1)
+    private void nightnotifier$onPermissionChange(ServerPlayerEntity player, CallbackInfo ci) {
+        AudienceIndex.onPlayerChanged(player);
+    }
+}
@@ -0,0 +1,23 @@
+package hawkshock.nightnotifier.mixin;
+
+import hawkshock.nightnotifier.server.AudienceIndex;
+import hawkshock.nightnotifier.server.SleepTracker;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.world.GameMode;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+// Game mode changes re-evaluate the player's notification audience membership and sleep count (spectators don't count).
+@Mixin(ServerPlayerEntity.class)
+public abstract class ServerPlayerEntityMixin {
+    @Inject(method = "changeGameMode", at = @At("RETURN"), require = 1)
+    private void nightnotifier$onGameModeChange(GameMode gameMode, CallbackInfoReturnable<Boolean> cir) {
+        if (cir.getReturnValueZ()) {
+            ServerPlayerEntity player = (ServerPlayerEntity) (Object) this;
+            AudienceIndex.onPlayerChanged(player);
+            SleepTracker.onGameModeChanged(player);
+        }
+    }
+}
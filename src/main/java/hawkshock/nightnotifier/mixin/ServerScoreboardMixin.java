@@ -0,0 +1,37 @@
+package hawkshock.nightnotifier.mixin;
+
+import hawkshock.nightnotifier.server.AudienceIndex;
+import net.minecraft.scoreboard.ServerScoreboard;
+import net.minecraft.scoreboard.Team;
+import net.minecraft.server.MinecraftServer;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+// Team membership changes re-evaluate the player's notification audience membership.
+@Mixin(ServerScoreboard.class)
+public abstract class ServerScoreboardMixin {
+    @Shadow @Final private MinecraftServer server;
+
+    @Inject(method = "addScoreHolderToTeam", at = @At("RETURN"), require = 1)
+    private void nightnotifier$onTeamJoin(String scoreHolderName, Team team, CallbackInfoReturnable<Boolean> cir) {
+        AudienceIndex.onTeamChanged(server, scoreHolderName);
+    }
+
+    @Inject(method = "removeScoreHolderFromTeam", at = @At("RETURN"), require = 1)
+    private void nightnotifier$onTeamLeave(String scoreHolderName, Team team, CallbackInfo ci) {
+        AudienceIndex.onTeamChanged(server, scoreHolderName);
+    }
+
+    // Scoreboard.removeTeam drops every member's mapping and then calls this; the team still lists them.
+    @Inject(method = "updateRemovedTeam", at = @At("RETURN"), require = 1)
+    private void nightnotifier$onTeamRemoved(Team team, CallbackInfo ci) {
+        for (String scoreHolderName : team.getPlayerList()) {
+            AudienceIndex.onTeamChanged(server, scoreHolderName);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package hawkshock.nightnotifier.network;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * In-process delivery of overlay notifications for the integrated server (singleplayer / LAN host).
+ *
+ * Both entrypoints share one JVM there, so the host player's records are handed to the client
+ * through a queue instead of being encoded to a RegistryByteBuf and decoded again.
+ * The client attaches on join when an integrated server is running and drains the queue every tick.
+ */
+public final class LocalOverlayBridge {
+    private LocalOverlayBridge() {}
+
+    private static final ConcurrentLinkedQueue<OverlayMessagePayload> QUEUE = new ConcurrentLinkedQueue<>();
+    private static volatile UUID localPlayer = null;
+
+    /** Called by the client when it joins its own integrated server. */
+    public static void attach(UUID player) {
+        QUEUE.clear();
+        localPlayer = player;
+    }
+
+    /** Called by the client on disconnect. */
+    public static void detach() {
+        localPlayer = null;
+        QUEUE.clear();
+    }
+
+    /** True while the client is connected to an in-process server. */
+    public static boolean isActive() {
+        return localPlayer != null;
+    }
+
+    /** True if the given player is the in-process host and can take the fast path. */
+    public static boolean isLocal(UUID player) {
+        UUID local = localPlayer;
+        return local != null && local.equals(player);
+    }
+
+    /**
+     * Queue a record for the host player. Returns false (nothing queued) if the player is not the local host,
+     * in which case the caller sends the payload over the network as usual.
+     */
+    public static boolean offer(UUID player, OverlayMessagePayload payload) {
+        if (!isLocal(player)) return false;
+        QUEUE.offer(payload);
+        return true;
+    }
+
+    /** Next pending record for the client, or null. */
+    public static OverlayMessagePayload poll() {
+        return QUEUE.poll();
+    }
+}
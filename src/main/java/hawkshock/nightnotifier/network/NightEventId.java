@@ -0,0 +1,45 @@
+package hawkshock.nightnotifier.network;
+
+import hawkshock.nightnotifier.time.NightClock;
+
+/**
+ * Sequence ID for a logical night event: (world, day number, event kind) packed into one long.
+ *
+ * The server stamps it on every OverlayMessagePayload and the client simulation derives the same
+ * value for its own events, so either path can recognise an event the other already delivered.
+ * Both take it from the clock on the transition tick, not at send time, so a broadcast deferred
+ * under tick pressure still carries the ID of the event it announces.
+ * 0 means "no ID" and is never deduplicated.
+ */
+public final class NightEventId {
+    private NightEventId() {}
+
+    public static final long NONE = 0L;
+
+    public enum Kind {
+        NIGHT_START,
+        STORM_START,
+        SUNRISE_IMMINENT;
+
+        /**
+         * Kind for an event type string (server or CLIENT_SIM_ variant). Nightfall caused by a daytime
+         * thunderstorm is its own kind so that a later natural nightfall on the same day is not dropped.
+         */
+        public static Kind of(String eventType, NightClock clock) {
+            if (eventType != null && eventType.contains("SUNRISE")) return SUNRISE_IMMINENT;
+            return clock.naturalNight() ? NIGHT_START : STORM_START;
+        }
+    }
+
+    /**
+     * Layout: 16 bits world hash | 40 bits day number | 8 bits kind (ordinal + 1).
+     */
+    public static long of(String worldId, long dayNumber, Kind kind) {
+        long world = worldId != null ? worldId.hashCode() & 0xFFFFL : 0L;
+        return (world << 48) | ((dayNumber & 0xFF_FFFF_FFFFL) << 8) | (kind.ordinal() + 1);
+    }
+
+    public static long of(String worldId, NightClock clock, String eventType) {
+        return of(worldId, clock.dayNumber(), Kind.of(eventType, clock));
+    }
+}
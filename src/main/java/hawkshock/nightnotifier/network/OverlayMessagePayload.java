@@ -10,17 +10,23 @@ import net.minecraft.util.Identifier;
 /**
  * Server -> Client overlay notification.
  * Guarded against double registration (integrated server calls both main + client entrypoints).
+ * {@code sequenceId} is a {@link NightEventId} the client uses to drop events it already delivered.
+ *
+ * The channel name carries the wire version: adding sequenceId made it {@code overlay_msg_v2}, so a
+ * client and server on different versions see no shared channel and fall back to vanilla titles
+ * instead of failing to decode.
  */
-public record OverlayMessagePayload(String message, int duration, String eventType) implements CustomPayload {
+public record OverlayMessagePayload(String message, int duration, String eventType, long sequenceId) implements CustomPayload {
 
 	public static final Id<OverlayMessagePayload> ID =
-			new CustomPayload.Id<>(Identifier.of("nightnotifier", "overlay_msg"));
+			new CustomPayload.Id<>(Identifier.of("nightnotifier", "overlay_msg_v2"));
 
 	public static final PacketCodec<RegistryByteBuf, OverlayMessagePayload> CODEC =
 			PacketCodec.tuple(
 					PacketCodecs.STRING, OverlayMessagePayload::message,
 					PacketCodecs.VAR_INT, OverlayMessagePayload::duration,
 					PacketCodecs.STRING, OverlayMessagePayload::eventType,
+					PacketCodecs.VAR_LONG, OverlayMessagePayload::sequenceId,
 					OverlayMessagePayload::new
 			);
 
@@ -0,0 +1,44 @@
+package hawkshock.nightnotifier.network;
+
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.codec.PacketCodecs;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+
+/**
+ * Server -> Client "X/Y sleeping" delta. Sent only when one of the counts changes.
+ * Guarded against double registration like {@link OverlayMessagePayload}.
+ */
+public record SleepStatusPayload(int sleeping, int total, int required) implements CustomPayload {
+
+	public static final Id<SleepStatusPayload> ID =
+			new CustomPayload.Id<>(Identifier.of("nightnotifier", "sleep_status"));
+
+	public static final PacketCodec<RegistryByteBuf, SleepStatusPayload> CODEC =
+			PacketCodec.tuple(
+					PacketCodecs.VAR_INT, SleepStatusPayload::sleeping,
+					PacketCodecs.VAR_INT, SleepStatusPayload::total,
+					PacketCodecs.VAR_INT, SleepStatusPayload::required,
+					SleepStatusPayload::new
+			);
+
+	private static boolean registered = false;
+
+	@Override
+	public Id<? extends CustomPayload> getId() {
+		return ID;
+	}
+
+	public static void registerTypeSafely() {
+		if (registered) return;
+		try {
+			PayloadTypeRegistry.playS2C().register(ID, CODEC);
+			registered = true;
+		} catch (IllegalArgumentException ignored) {
+			// Already registered by other entrypoint (server or client).
+			registered = true;
+		}
+	}
+}
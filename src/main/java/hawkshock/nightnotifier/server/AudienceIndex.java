@@ -0,0 +1,150 @@
+package hawkshock.nightnotifier.server;
+
+import hawkshock.nightnotifier.config.NightNotifierConfig;
+import net.minecraft.scoreboard.Team;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Compiled notification audience: a dense player-index table plus one bitset per event.
+ *
+ * The rules in {@link NightNotifierConfig} are evaluated once per player when that player joins or
+ * their team, game mode or permission level changes, never per broadcast. Broadcasting is a bitset
+ * iteration with a world identity check. Server thread only.
+ */
+public final class AudienceIndex {
+    public enum Event { NIGHT_START, SUNRISE_IMMINENT }
+
+    private static AudienceIndex instance;
+
+    private ServerPlayerEntity[] players = new ServerPlayerEntity[32];
+    private int size = 0;
+    private final Map<UUID, Integer> slots = new HashMap<>();
+    private final BitSet[] members = new BitSet[Event.values().length];
+    private final CompiledRule[] rules = new CompiledRule[Event.values().length];
+    private Predicate<ServerPlayerEntity> optedOut = player -> false;
+
+    public AudienceIndex(NightNotifierConfig cfg) {
+        for (int i = 0; i < members.length; i++) members[i] = new BitSet();
+        compile(cfg);
+        instance = this;
+    }
+
+    /** Recompile the rules (e.g. after a config reload) and re-evaluate every indexed player. */
+    public void compile(NightNotifierConfig cfg) {
+        rules[Event.NIGHT_START.ordinal()] = CompiledRule.of(cfg.nightStartAudience);
+        rules[Event.SUNRISE_IMMINENT.ordinal()] = CompiledRule.of(cfg.sunriseAudience);
+        for (int i = 0; i < size; i++) evaluate(i);
+    }
+
+    /** Players for whom this returns true are left out of every event (server-side preferences). */
+    public void setOptOut(Predicate<ServerPlayerEntity> optedOut) {
+        this.optedOut = optedOut;
+    }
+
+    public void add(ServerPlayerEntity player) {
+        Integer slot = slots.get(player.getUuid());
+        if (slot != null) {
+            // Respawn creates a new entity for the same UUID.
+            players[slot] = player;
+            evaluate(slot);
+            return;
+        }
+        if (size == players.length) players = Arrays.copyOf(players, size * 2);
+        players[size] = player;
+        slots.put(player.getUuid(), size);
+        evaluate(size);
+        size++;
+    }
+
+    public void remove(UUID uuid) {
+        Integer slot = slots.remove(uuid);
+        if (slot == null) return;
+        int last = size - 1;
+        if (slot != last) {
+            // Keep the table dense: move the last player into the freed slot.
+            players[slot] = players[last];
+            slots.put(players[slot].getUuid(), slot);
+            for (BitSet bits : members) bits.set(slot, bits.get(last));
+        }
+        players[last] = null;
+        for (BitSet bits : members) bits.clear(last);
+        size = last;
+    }
+
+    /** Re-evaluate one player after a team, game mode, permission or preference change. */
+    public void refresh(ServerPlayerEntity player) {
+        Integer slot = slots.get(player.getUuid());
+        if (slot != null) {
+            players[slot] = player;
+            evaluate(slot);
+        }
+    }
+
+    /** Append the event's audience in {@code world} to {@code out}. */
+    public void collect(Event event, ServerWorld world, List<ServerPlayerEntity> out) {
+        BitSet bits = members[event.ordinal()];
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            ServerPlayerEntity p = players[i];
+            if (p.getEntityWorld() == world) out.add(p);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void evaluate(int slot) {
+        ServerPlayerEntity p = players[slot];
+        boolean out = optedOut.test(p);
+        for (int e = 0; e < members.length; e++) {
+            members[e].set(slot, !out && rules[e].matches(p));
+        }
+    }
+
+    // --- change hooks called from mixins -------------------------------------------------------
+
+    public static void onPlayerChanged(ServerPlayerEntity player) {
+        if (instance != null) instance.refresh(player);
+    }
+
+    public static void onTeamChanged(MinecraftServer server, String scoreHolderName) {
+        if (instance == null || server == null) return;
+        ServerPlayerEntity player = server.getPlayerManager().getPlayer(scoreHolderName);
+        if (player != null) instance.refresh(player);
+    }
+
+    private record CompiledRule(boolean includeSpectators,
+                                boolean includeCreative,
+                                int excludePermissionLevelAtLeast,
+                                Set<String> excludedTeams) {
+        static CompiledRule of(NightNotifierConfig.AudienceRule rule) {
+            if (rule == null) rule = new NightNotifierConfig.AudienceRule();
+            Set<String> teams = rule.excludeTeams == null ? Set.of() : new HashSet<>(rule.excludeTeams);
+            return new CompiledRule(rule.includeSpectators, rule.includeCreative,
+                    rule.excludePermissionLevelAtLeast, teams);
+        }
+
+        boolean matches(ServerPlayerEntity p) {
+            if (!includeSpectators && p.isSpectator()) return false;
+            if (!includeCreative && p.isCreative()) return false;
+            if (p.getPermissionLevel() >= excludePermissionLevelAtLeast) return false;
+            if (!excludedTeams.isEmpty()) {
+                Team team = p.getScoreboardTeam();
+                if (team != null && excludedTeams.contains(team.getName())) return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package hawkshock.nightnotifier.server;
+
+import hawkshock.nightnotifier.time.NightClock;
+
+/**
+ * The boss bar's displayed state: night progress quantized to {@code stepPercent} plus the color
+ * section. {@link NightBossBar} only touches the bar (and sends packets) when {@link #advance}
+ * reports a change. Pure state, so the allocation gate can drive it without a world.
+ */
+public final class BossBarSteps {
+    private int step = 5;
+    private int percent = -1;
+    private int section = -1;
+
+    public void configure(int stepPercent) {
+        step = Math.max(1, Math.min(100, stepPercent));
+        reset();
+    }
+
+    /** True when the displayed percent or section changed since the last call. */
+    public boolean advance(NightClock clock, int leadTicks) {
+        int quantized = (Math.round(clock.fraction() * 100f) / step) * step;
+        int s = clock.progressSection(Math.max(0, leadTicks));
+        if (quantized == percent && s == section) return false;
+        percent = quantized;
+        section = s;
+        return true;
+    }
+
+    /** Forget the displayed state so the next {@link #advance} reports a change. */
+    public void reset() {
+        percent = -1;
+        section = -1;
+    }
+
+    public boolean shown() {
+        return percent >= 0;
+    }
+
+    public int percent() {
+        return percent;
+    }
+
+    public int section() {
+        return section;
+    }
+}
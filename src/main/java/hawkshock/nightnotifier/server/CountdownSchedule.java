@@ -0,0 +1,33 @@
+package hawkshock.nightnotifier.server;
+
+import hawkshock.nightnotifier.time.NightClock;
+
+/**
+ * When {@link SunriseCountdown} sends an update: on entering the warning window, then every 10 s,
+ * every 5 s inside the last 30 s and every second inside the last 10 s. Pure state, so the
+ * allocation gate can drive it without a world.
+ */
+public final class CountdownSchedule {
+    private int lastSentSeconds = -1;
+
+    /** Seconds to show now, or -1 when no update is due this tick. */
+    public int due(NightClock clock, boolean enabled, float tickRate) {
+        if (!enabled || !clock.inWarningWindow()) {
+            lastSentSeconds = -1;
+            return -1;
+        }
+        int seconds = NightClock.secondsFor(clock.ticksUntilSunrise(), tickRate);
+        if (seconds == lastSentSeconds) return -1;
+        // Always send on entering the window, then only on interval boundaries.
+        if (lastSentSeconds >= 0 && seconds % intervalFor(seconds) != 0) return -1;
+        lastSentSeconds = seconds;
+        return seconds;
+    }
+
+    /** Seconds between updates for the given time left. */
+    static int intervalFor(int secondsLeft) {
+        if (secondsLeft <= 10) return 1;
+        if (secondsLeft <= 30) return 5;
+        return 10;
+    }
+}
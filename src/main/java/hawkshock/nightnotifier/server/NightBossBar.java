@@ -0,0 +1,106 @@
+package hawkshock.nightnotifier.server;
+
+import hawkshock.nightnotifier.config.NightNotifierConfig;
+import hawkshock.nightnotifier.network.OverlayMessagePayload;
+import hawkshock.nightnotifier.time.NightClock;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.entity.boss.BossBar;
+import net.minecraft.entity.boss.ServerBossBar;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.Text;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Server-side night progress boss bar for players without the mod.
+ *
+ * One bar instance is shared by the whole audience. Percent and color are quantized to
+ * {@code bossBarStepPercent}, so packets go out only when the displayed value crosses a step,
+ * and audience membership is only re-synced at those moments.
+ */
+public final class NightBossBar {
+    private static final Text TITLE = Text.literal("Night");
+
+    private final ServerBossBar bar = new ServerBossBar(TITLE, BossBar.Color.BLUE, BossBar.Style.PROGRESS);
+    private final BossBar.Color[] sectionColors = new BossBar.Color[4];
+    private final BossBarSteps steps = new BossBarSteps();
+
+    public NightBossBar(NightNotifierConfig cfg) {
+        configure(cfg);
+        bar.setVisible(false);
+    }
+
+    public void configure(NightNotifierConfig cfg) {
+        steps.configure(cfg.bossBarStepPercent);
+        sectionColors[0] = parseColor(cfg.bossBarColor0, BossBar.Color.RED);
+        sectionColors[1] = parseColor(cfg.bossBarColor1, BossBar.Color.BLUE);
+        sectionColors[2] = parseColor(cfg.bossBarColor2, BossBar.Color.PURPLE);
+        sectionColors[3] = parseColor(cfg.bossBarColor3, BossBar.Color.WHITE);
+    }
+
+    /** Called once per overworld tick with the fresh clock snapshot. */
+    public void tick(NightWorld world, NightClock clock, NightNotifierConfig cfg) {
+        if (!cfg.enableBossBar || !clock.canSleep()) {
+            hide();
+            return;
+        }
+
+        if (!steps.advance(clock, cfg.morningWarningLeadTicks)) return;
+
+        syncAudience(world);
+        bar.setPercent(steps.percent() / 100f);
+        bar.setColor(sectionColors[steps.section()]);
+        bar.setVisible(true);
+    }
+
+    public void hide() {
+        if (!steps.shown() && !bar.isVisible()) return;
+        bar.setVisible(false);
+        bar.clearPlayers();
+        steps.reset();
+    }
+
+    /** Add a joining player straight away if the bar is currently shown. */
+    public void onJoin(ServerPlayerEntity player) {
+        if (bar.isVisible() && eligible(player)) bar.addPlayer(player);
+    }
+
+    public void onLeave(ServerPlayerEntity player) {
+        bar.removePlayer(player);
+    }
+
+    /** Title update from the sleeping counter; only called when a count changes. */
+    public void showSleeping(int asleep, int required) {
+        bar.setName(asleep > 0 ? Text.literal("Night - " + asleep + "/" + required + " sleeping") : TITLE);
+    }
+
+    private void syncAudience(NightWorld world) {
+        List<ServerPlayerEntity> stale = null;
+        for (ServerPlayerEntity p : bar.getPlayers()) {
+            if (p.getEntityWorld() != world.world() || !eligible(p)) {
+                if (stale == null) stale = new ArrayList<>();
+                stale.add(p);
+            }
+        }
+        if (stale != null) stale.forEach(bar::removePlayer);
+        for (ServerPlayerEntity p : world.players()) {
+            if (eligible(p)) bar.addPlayer(p);
+        }
+    }
+
+    // Modded clients already draw their own progress bar.
+    private static boolean eligible(ServerPlayerEntity player) {
+        return !ServerPlayNetworking.canSend(player, OverlayMessagePayload.ID);
+    }
+
+    private static BossBar.Color parseColor(String name, BossBar.Color fallback) {
+        if (name == null) return fallback;
+        try {
+            return BossBar.Color.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package hawkshock.nightnotifier.server;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.World;
+
+import java.util.List;
+
+/**
+ * What {@link OverworldTick} reads from the world it ticks. {@link ServerNightWorld} backs it with
+ * the live {@link ServerWorld}; the allocation gate runs the same tick against a stub.
+ */
+public interface NightWorld {
+    RegistryKey<World> key();
+
+    long timeOfDay();
+
+    long time();
+
+    boolean thundering();
+
+    /** {@code /tick sprint} or {@code /tick freeze}: nothing runs this tick. */
+    boolean suspended();
+
+    /** The server's average tick time in milliseconds. */
+    double averageMspt();
+
+    float tickRate();
+
+    int sleepingPercentage();
+
+    List<ServerPlayerEntity> players();
+
+    /** The backing world for API events; null in the allocation gate, where nobody listens. */
+    ServerWorld world();
+}
@@ -0,0 +1,70 @@
+package hawkshock.nightnotifier.server;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-player token bucket limiting how many night notifications a player receives.
+ *
+ * Checked before any offender scan or message composition so that repeated storm edges cost
+ * nothing once everyone's budget is spent. Server thread only.
+ */
+public final class NotificationBudget {
+    private static final class Bucket {
+        double tokens;
+        long lastRefill;
+    }
+
+    private final Map<UUID, Bucket> buckets = new HashMap<>();
+    private int capacity;
+    private int refillTicks;
+
+    public NotificationBudget(int capacity, int refillTicks) {
+        configure(capacity, refillTicks);
+    }
+
+    /** {@code capacity <= 0} disables the budget (unlimited). */
+    public void configure(int capacity, int refillTicks) {
+        this.capacity = capacity;
+        this.refillTicks = Math.max(1, refillTicks);
+    }
+
+    public boolean enabled() {
+        return capacity > 0;
+    }
+
+    /** True if the player has at least one token at game time {@code now}. Does not consume. */
+    public boolean available(UUID player, long now) {
+        if (!enabled()) return true;
+        return refill(player, now).tokens >= 1.0;
+    }
+
+    /** Spend one token; call only after {@link #available} returned true on the same tick. */
+    public void consume(UUID player, long now) {
+        if (!enabled()) return;
+        Bucket b = refill(player, now);
+        b.tokens = Math.max(0.0, b.tokens - 1.0);
+    }
+
+    public void forget(UUID player) {
+        buckets.remove(player);
+    }
+
+    private Bucket refill(UUID player, long now) {
+        Bucket b = buckets.get(player);
+        if (b == null) {
+            b = new Bucket();
+            b.tokens = capacity;
+            b.lastRefill = now;
+            buckets.put(player, b);
+            return b;
+        }
+        long elapsed = now - b.lastRefill;
+        if (elapsed > 0) {
+            b.tokens = Math.min(capacity, b.tokens + (double) elapsed / refillTicks);
+            b.lastRefill = now;
+        }
+        return b;
+    }
+}
@@ -0,0 +1,48 @@
+package hawkshock.nightnotifier.server;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Notification wording, independent of Minecraft types:
+ * {@code "<label>: <top> hasn't slept for N nights. Others: a(3n), b(2n) +4"}.
+ */
+public final class NotificationText {
+    private NotificationText() {}
+
+    public static final int TICKS_PER_DAY = 24000;
+
+    public static String nights(int ticksSinceRest) {
+        int n = ticksSinceRest / TICKS_PER_DAY;
+        return n == 1 ? "1 night" : n + " nights";
+    }
+
+    /** "<top> hasn't slept for N nights." - also used as the title packet's subtitle. */
+    public static String headline(String topName, int topTicks) {
+        return topName + " hasn't slept for " + nights(topTicks) + ".";
+    }
+
+    /** Full single-line message; {@code offenders} is sorted most tired first and must not be empty. */
+    public static <T> String compose(String eventLabel, List<T> offenders, Function<T, String> name,
+                                     ToIntFunction<T> ticksSinceRest, int maxOffenderNames) {
+        T top = offenders.get(0);
+        // Negative config values mean "top player only", as they always have.
+        int names = Math.max(0, maxOffenderNames);
+        StringBuilder sb = new StringBuilder(64 + 16 * Math.min(offenders.size(), names + 1));
+        sb.append(eventLabel).append(": ").append(headline(name.apply(top), ticksSinceRest.applyAsInt(top)));
+
+        int extras = Math.min(names, offenders.size() - 1);
+        if (extras > 0) {
+            sb.append(" Others: ");
+            for (int i = 1; i <= extras; i++) {
+                if (i > 1) sb.append(", ");
+                T p = offenders.get(i);
+                sb.append(name.apply(p)).append('(').append(ticksSinceRest.applyAsInt(p) / TICKS_PER_DAY).append("n)");
+            }
+            int remaining = offenders.size() - 1 - extras;
+            if (remaining > 0) sb.append(" +").append(remaining);
+        }
+        return sb.toString();
+    }
+}
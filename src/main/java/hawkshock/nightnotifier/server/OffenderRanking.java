@@ -0,0 +1,30 @@
+package hawkshock.nightnotifier.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Threshold filter plus descending sort by time since rest. Each player's stat is read exactly
+ * once; the sort runs on a primitive key array instead of re-reading stats in a comparator.
+ */
+public final class OffenderRanking {
+    private OffenderRanking() {}
+
+    public static <T> List<T> collect(List<T> players, ToIntFunction<T> ticksSinceRest, int threshold) {
+        int n = players.size();
+        long[] keyed = new long[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int tsr = ticksSinceRest.applyAsInt(players.get(i));
+            // High 32 bits: inverted stat so ascending order is "most tired first"; low 32 bits: index.
+            if (tsr >= threshold) keyed[count++] = ((long) ~tsr << 32) | i;
+        }
+        if (count == 0) return new ArrayList<>(0);
+        Arrays.sort(keyed, 0, count);
+        List<T> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) out.add(players.get((int) keyed[i]));
+        return out;
+    }
+}
@@ -0,0 +1,89 @@
+package hawkshock.nightnotifier.server;
+
+import hawkshock.nightnotifier.time.NightClock;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Repeated offender ranking into reused arrays, for the periodic snapshot rescan.
+ *
+ * Ranks like {@link OffenderRanking} (threshold filter, most tired first, ties in list order) and
+ * reports whether the result differs from the previous scan: other players, another order, or a
+ * player's whole nights awake changed. Raw tick counts grow every tick and are not compared. A
+ * scan only allocates when the population outgrows the arrays. Not thread-safe.
+ */
+public final class OffenderScan<T> {
+    private final ToIntFunction<T> ticksSinceRest;
+    private final Function<T, ?> identity;
+
+    private long[] keyed = new long[0];
+    private Object[] ranked = new Object[0];
+    private Object[] ids = new Object[0];
+    private int[] ticks = new int[0];
+    private int count = 0;
+
+    public OffenderScan(ToIntFunction<T> ticksSinceRest, Function<T, ?> identity) {
+        this.ticksSinceRest = ticksSinceRest;
+        this.identity = identity;
+    }
+
+    /** Rank {@code players} at or above {@code threshold}; true when the ranking changed. */
+    public boolean scan(List<T> players, int threshold) {
+        int n = players.size();
+        if (keyed.length < n) grow(n);
+        int found = 0;
+        for (int i = 0; i < n; i++) {
+            int tsr = ticksSinceRest.applyAsInt(players.get(i));
+            // Same key as OffenderRanking: inverted stat high, list index low.
+            if (tsr >= threshold) keyed[found++] = ((long) ~tsr << 32) | i;
+        }
+        Arrays.sort(keyed, 0, found);
+
+        boolean changed = found != count;
+        for (int k = 0; k < found; k++) {
+            T player = players.get((int) keyed[k]);
+            int tsr = ~(int) (keyed[k] >>> 32);
+            Object id = identity.apply(player);
+            if (!changed && (!id.equals(ids[k]) || nights(tsr) != nights(ticks[k]))) changed = true;
+            ranked[k] = player;
+            ids[k] = id;
+            ticks[k] = tsr;
+        }
+        // Drop references to players who left the ranking.
+        for (int k = found; k < count; k++) {
+            ranked[k] = null;
+            ids[k] = null;
+        }
+        count = found;
+        return changed;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int rank) {
+        return (T) ranked[rank];
+    }
+
+    /** Stat read by the last scan for the player at {@code rank}. */
+    public int ticksSinceRest(int rank) {
+        return ticks[rank];
+    }
+
+    private void grow(int n) {
+        int capacity = Math.max(n, keyed.length * 2);
+        keyed = new long[capacity];
+        ranked = Arrays.copyOf(ranked, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        ticks = Arrays.copyOf(ticks, capacity);
+    }
+
+    private static long nights(int ticksSinceRest) {
+        return ticksSinceRest / NightClock.TICKS_PER_DAY;
+    }
+}
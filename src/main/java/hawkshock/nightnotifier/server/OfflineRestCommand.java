@@ -0,0 +1,77 @@
+package hawkshock.nightnotifier.server;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.stat.Stats;
+import net.minecraft.text.Text;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import static net.minecraft.server.command.CommandManager.argument;
+import static net.minecraft.server.command.CommandManager.literal;
+
+/**
+ * {@code /nightnotifier offline [n]} - ops only. Longest time since rest across every player who has
+ * ever joined. The scan runs on {@link OfflineRestScanner}'s pool; only the final merge with live
+ * values for online players and the reply happen on the server thread.
+ */
+public final class OfflineRestCommand {
+    private OfflineRestCommand() {}
+
+    private static final int DEFAULT_TOP = 10;
+
+    public static void register(OfflineRestScanner scanner) {
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) ->
+                dispatcher.register(literal("nightnotifier")
+                        .then(literal("offline")
+                                .requires(src -> src.hasPermissionLevel(2))
+                                .executes(ctx -> run(ctx, scanner, DEFAULT_TOP))
+                                .then(argument("n", IntegerArgumentType.integer(1, 100))
+                                        .executes(ctx -> run(ctx, scanner, IntegerArgumentType.getInteger(ctx, "n")))))));
+    }
+
+    private static int run(CommandContext<ServerCommandSource> ctx, OfflineRestScanner scanner, int n) {
+        ServerCommandSource source = ctx.getSource();
+        MinecraftServer server = source.getServer();
+        source.sendFeedback(() -> Text.literal("Night Notifier: scanning player stats..."), false);
+        scanner.scan(server).whenComplete((result, error) -> server.execute(() -> {
+            if (error != null) {
+                source.sendError(Text.literal("Stats scan failed: " + error.getMessage()));
+                return;
+            }
+            reply(source, server, result, n);
+        }));
+        return 1;
+    }
+
+    private static void reply(ServerCommandSource source, MinecraftServer server, OfflineRestScanner.Result result, int n) {
+        // Stats files of online players lag by up to one autosave; prefer the live value.
+        List<OfflineRestScanner.Entry> merged = new ArrayList<>(result.players().size());
+        for (OfflineRestScanner.Entry e : result.players()) {
+            ServerPlayerEntity online = server.getPlayerManager().getPlayer(e.player());
+            merged.add(online == null ? e : new OfflineRestScanner.Entry(e.player(),
+                    online.getStatHandler().getStat(Stats.CUSTOM.getOrCreateStat(Stats.TIME_SINCE_REST))));
+        }
+        merged.sort(Comparator.comparingInt(OfflineRestScanner.Entry::ticksSinceRest).reversed());
+
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT,
+                "Night Notifier: %d players (%d files, %d re-read, %d unreadable) in %d ms",
+                merged.size(), result.files(), result.parsed(), result.failed(), result.elapsedMillis()));
+        for (int i = 0; i < Math.min(n, merged.size()); i++) {
+            OfflineRestScanner.Entry e = merged.get(i);
+            ServerPlayerEntity online = server.getPlayerManager().getPlayer(e.player());
+            String name = online != null ? online.getName().getString() : e.player().toString();
+            sb.append('\n').append(i + 1).append(". ").append(name).append(" - ")
+                    .append(String.format(Locale.ROOT, "%.1f days", e.ticksSinceRest() / 24000.0));
+        }
+        String text = sb.toString();
+        source.sendFeedback(() -> Text.literal(text), false);
+    }
+}
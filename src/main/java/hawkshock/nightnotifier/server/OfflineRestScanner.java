@@ -0,0 +1,173 @@
+package hawkshock.nightnotifier.server;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import hawkshock.nightnotifier.NightNotifier;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.WorldSavePath;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads {@code minecraft:time_since_rest} for every player with a {@code <world>/stats/<uuid>.json},
+ * online or not.
+ *
+ * Files are parsed in parallel on a small private pool with a streaming reader that skips everything
+ * except the one field. Values are cached by file mtime and size, so repeat scans only re-read files
+ * the server saved since. Never runs on the server thread; one scan at a time.
+ */
+public final class OfflineRestScanner {
+    public record Entry(UUID player, int ticksSinceRest) {}
+
+    /** Players sorted by ticks since rest, highest first, plus how much work the scan did. */
+    public record Result(List<Entry> players, int files, int parsed, int failed, long elapsedMillis) {}
+
+    private record Cached(long mtime, long size, int ticksSinceRest) {}
+
+    private static final String CUSTOM = "minecraft:custom";
+    private static final String TIME_SINCE_REST = "minecraft:time_since_rest";
+
+    private static volatile OfflineRestScanner instance;
+
+    private final Map<UUID, Cached> cache = new ConcurrentHashMap<>();
+    private final ForkJoinPool pool;
+    private CompletableFuture<Result> running;
+
+    public OfflineRestScanner(int parallelism) {
+        this.pool = new ForkJoinPool(Math.max(1, parallelism), p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("NightNotifier-StatsScan-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+        instance = this;
+    }
+
+    /** The scanner created at mod init, or null before that. */
+    public static OfflineRestScanner instance() {
+        return instance;
+    }
+
+    /** Scan the server's own stats folder. */
+    public CompletableFuture<Result> scan(MinecraftServer server) {
+        return scan(server.getSavePath(WorldSavePath.STATS));
+    }
+
+    /** Start a scan of {@code statsDir}, or join the one already in flight. */
+    public synchronized CompletableFuture<Result> scan(Path statsDir) {
+        if (running != null && !running.isDone()) return running;
+        running = CompletableFuture.supplyAsync(() -> scanNow(statsDir), pool);
+        return running;
+    }
+
+    public void clearCache() {
+        cache.clear();
+    }
+
+    private Result scanNow(Path dir) {
+        long start = System.nanoTime();
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.json")) {
+            stream.forEach(files::add);
+        } catch (NoSuchFileException e) {
+            return new Result(List.of(), 0, 0, 0, 0L);
+        } catch (IOException e) {
+            NightNotifier.LOGGER.warn("[NightNotifier] Failed to list {}", dir, e);
+            return new Result(List.of(), 0, 0, 0, 0L);
+        }
+
+        AtomicInteger parsed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        // Runs inside our pool, so the parallel stream uses its workers rather than the common pool.
+        List<Entry> entries = new ArrayList<>(files.parallelStream()
+                .map(file -> read(file, parsed, failed))
+                .filter(e -> e != null)
+                .toList());
+        entries.sort(Comparator.comparingInt(Entry::ticksSinceRest).reversed());
+
+        // Forget players whose stats file disappeared.
+        if (cache.size() > entries.size()) {
+            Set<UUID> seen = new HashSet<>(entries.size() * 2);
+            for (Entry e : entries) seen.add(e.player());
+            cache.keySet().retainAll(seen);
+        }
+        return new Result(List.copyOf(entries), files.size(), parsed.get(), failed.get(),
+                (System.nanoTime() - start) / 1_000_000L);
+    }
+
+    private Entry read(Path file, AtomicInteger parsed, AtomicInteger failed) {
+        String name = file.getFileName().toString();
+        UUID id;
+        try {
+            id = UUID.fromString(name.substring(0, name.length() - ".json".length()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            long mtime = attrs.lastModifiedTime().toMillis();
+            long size = attrs.size();
+            Cached c = cache.get(id);
+            if (c == null || c.mtime() != mtime || c.size() != size) {
+                c = new Cached(mtime, size, extract(file));
+                cache.put(id, c);
+                parsed.incrementAndGet();
+            }
+            return new Entry(id, c.ticksSinceRest());
+        } catch (IOException | RuntimeException e) {
+            // Partially written by a concurrent save, or not a stats file at all.
+            failed.incrementAndGet();
+            return null;
+        }
+    }
+
+    /** {@code stats -> minecraft:custom -> minecraft:time_since_rest}, or 0 when absent. */
+    static int extract(Path file) throws IOException {
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             JsonReader json = new JsonReader(in)) {
+            json.beginObject();
+            while (json.hasNext()) {
+                if (!json.nextName().equals("stats") || json.peek() != JsonToken.BEGIN_OBJECT) {
+                    json.skipValue();
+                    continue;
+                }
+                json.beginObject();
+                while (json.hasNext()) {
+                    if (!json.nextName().equals(CUSTOM) || json.peek() != JsonToken.BEGIN_OBJECT) {
+                        json.skipValue();
+                        continue;
+                    }
+                    json.beginObject();
+                    while (json.hasNext()) {
+                        if (json.nextName().equals(TIME_SINCE_REST) && json.peek() == JsonToken.NUMBER) {
+                            return json.nextInt();
+                        }
+                        json.skipValue();
+                    }
+                    return 0;
+                }
+                return 0;
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package hawkshock.nightnotifier.server;
+
+import hawkshock.nightnotifier.api.NightNotifierEvents;
+import hawkshock.nightnotifier.config.NightNotifierConfig;
+import hawkshock.nightnotifier.metrics.JfrNightTransition;
+import hawkshock.nightnotifier.metrics.NightMetrics;
+import hawkshock.nightnotifier.time.NightClock;
+import hawkshock.nightnotifier.time.NightCycleEngine;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.world.World;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The per-tick half of NightNotifier's overworld tick: tick pressure, the transition engine, boss
+ * bar, countdown, sleep counter, snapshot and the NIGHT_START / SUNRISE_IMMINENT API events.
+ * Broadcasts are left to the caller, which gets the transition bits back.
+ *
+ * Reads the world only through {@link NightWorld}, so the allocation gate runs this exact code
+ * against a stub. Server thread only.
+ */
+public final class OverworldTick {
+    /** Returned by {@link #tick} during {@code /tick sprint} or {@code /tick freeze}. */
+    public static final int SUSPENDED = -1;
+
+    private final TickPressure pressure;
+    private final NightBossBar bossBar;
+    private final SunriseCountdown countdown;
+    private final SleepTracker sleepTracker;
+    private final SnapshotPublisher snapshots;
+    private final PreferenceStore prefs;
+    // Dropped when the server stops: each engine reads from its world.
+    private final Map<RegistryKey<World>, NightCycleEngine> engines = new HashMap<>();
+    private NightClock clock;
+
+    public OverworldTick(TickPressure pressure, NightBossBar bossBar, SunriseCountdown countdown,
+                         SleepTracker sleepTracker, SnapshotPublisher snapshots, PreferenceStore prefs) {
+        this.pressure = pressure;
+        this.bossBar = bossBar;
+        this.countdown = countdown;
+        this.sleepTracker = sleepTracker;
+        this.snapshots = snapshots;
+        this.prefs = prefs;
+    }
+
+    /**
+     * Run one tick; returns the {@link NightCycleEngine} transition bits, or {@link #SUSPENDED}.
+     * Edge state is left untouched while suspended, so the first normal tick afterwards compares
+     * against the pre-sprint state and catches up once.
+     */
+    public int tick(NightWorld world, NightNotifierConfig cfg) {
+        if (world.suspended()) return SUSPENDED;
+
+        // Sampled every tick so the hysteresis follows the load, not just the moments a broadcast is due.
+        pressure.update(world.averageMspt());
+        NightCycleEngine engine = engines.get(world.key());
+        if (engine == null) {
+            engine = new NightCycleEngine(world::timeOfDay, world::time, world::thundering);
+            engines.put(world.key(), engine);
+        }
+        int transitions = engine.tick(cfg.morningWarningLeadTicks, cfg.stormDwellTicks);
+        clock = engine.clock();
+        bossBar.tick(world, clock, cfg);
+        countdown.tick(world, clock, cfg.enableActionBarCountdown, prefs);
+        sleepTracker.flush(world, cfg.enableBossBar ? bossBar : null);
+        snapshots.tick(world, clock, cfg.restThresholdTicks, cfg.snapshotRefreshTicks);
+
+        if ((transitions & NightCycleEngine.NIGHT_START) != 0) {
+            sleepTracker.markDirty();
+            NightNotifierEvents.NIGHT_START.invoker().onNightStart(world.world(), !clock.naturalNight());
+            NightMetrics.EVENTS_FIRED.increment();
+            JfrNightTransition.emit("NIGHT_START", !clock.naturalNight(), clock.dayNumber(), clock.timeOfDay());
+        }
+
+        if ((transitions & NightCycleEngine.SUNRISE_IMMINENT) != 0) {
+            NightNotifierEvents.SUNRISE_IMMINENT.invoker().onSunriseImminent(world.world(), clock.ticksUntilSunrise());
+            NightMetrics.EVENTS_FIRED.increment();
+            JfrNightTransition.emit("SUNRISE_IMMINENT", clock.thundering(), clock.dayNumber(), clock.timeOfDay());
+        }
+        return transitions;
+    }
+
+    /** Clock of the last ticked engine; null before the first tick. */
+    public NightClock clock() {
+        return clock;
+    }
+
+    public void reset() {
+        engines.clear();
+        clock = null;
+    }
+}
@@ -0,0 +1,48 @@
+package hawkshock.nightnotifier.server;
+
+/**
+ * Server-side notification preferences for one player, stored as a compact 4-byte record:
+ * version, channel flags, volume percent (0..200), reserved.
+ */
+public record PlayerPreferences(boolean title, boolean actionBar, boolean sound, int volumePercent) {
+    public static final PlayerPreferences DEFAULT = new PlayerPreferences(true, true, true, 100);
+
+    static final int RECORD_BYTES = 4;
+    private static final byte VERSION = 1;
+    private static final int FLAG_TITLE = 1;
+    private static final int FLAG_ACTION_BAR = 1 << 1;
+    private static final int FLAG_SOUND = 1 << 2;
+
+    public PlayerPreferences {
+        volumePercent = Math.max(0, Math.min(200, volumePercent));
+    }
+
+    /** All channels off: the player is left out of notification audiences entirely. */
+    public boolean silenced() {
+        return !title && !actionBar && (!sound || volumePercent == 0);
+    }
+
+    public float volumeScale() {
+        return volumePercent / 100f;
+    }
+
+    public PlayerPreferences withTitle(boolean v) { return new PlayerPreferences(v, actionBar, sound, volumePercent); }
+
+    public PlayerPreferences withActionBar(boolean v) { return new PlayerPreferences(title, v, sound, volumePercent); }
+
+    public PlayerPreferences withSound(boolean v) { return new PlayerPreferences(title, actionBar, v, volumePercent); }
+
+    public PlayerPreferences withVolume(int percent) { return new PlayerPreferences(title, actionBar, sound, percent); }
+
+    byte[] encode() {
+        int flags = (title ? FLAG_TITLE : 0) | (actionBar ? FLAG_ACTION_BAR : 0) | (sound ? FLAG_SOUND : 0);
+        return new byte[] { VERSION, (byte) flags, (byte) volumePercent, 0 };
+    }
+
+    static PlayerPreferences decode(byte[] data) {
+        if (data == null || data.length < RECORD_BYTES || data[0] != VERSION) return DEFAULT;
+        int flags = data[1];
+        return new PlayerPreferences((flags & FLAG_TITLE) != 0, (flags & FLAG_ACTION_BAR) != 0,
+                (flags & FLAG_SOUND) != 0, data[2] & 0xFF);
+    }
+}
@@ -0,0 +1,147 @@
+package hawkshock.nightnotifier.server;
+
+import hawkshock.nightnotifier.NightNotifier;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.WorldSavePath;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Per-player {@link PlayerPreferences} kept in {@code <world>/nightnotifier/prefs/<uuid>.bin}.
+ *
+ * Records are loaded lazily on join into a bounded LRU and written back on a background thread, so
+ * broadcasts read preferences from memory and the tick thread never touches the disk. Until a load
+ * finishes the player gets {@link PlayerPreferences#DEFAULT}. Records are only loaded on join, so
+ * online players are pinned: the LRU evicts offline players only, and exceeds its capacity when
+ * more players than that are online. The cache is server-thread only.
+ */
+public final class PreferenceStore {
+    private final Map<UUID, PlayerPreferences> cache;
+    private ExecutorService io;
+    private MinecraftServer server;
+    private Path dir;
+    private Consumer<ServerPlayerEntity> onChange = player -> {};
+
+    public PreferenceStore(int capacity) {
+        int max = Math.max(16, capacity);
+        this.cache = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, PlayerPreferences> eldest) {
+                if (size() <= max) return false;
+                for (Iterator<UUID> it = keySet().iterator(); it.hasNext(); ) {
+                    if (!isOnline(it.next())) {
+                        it.remove();
+                        break;
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    public void start(MinecraftServer server) {
+        this.server = server;
+        this.dir = server.getSavePath(WorldSavePath.ROOT).resolve("nightnotifier").resolve("prefs");
+        this.io = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "NightNotifier-Prefs");
+            t.setDaemon(true);
+            return t;
+        });
+        cache.clear();
+    }
+
+    /** Called on the server thread whenever an online player's preferences change (load or edit). */
+    public void onChange(Consumer<ServerPlayerEntity> listener) {
+        this.onChange = listener;
+    }
+
+    /** In-memory lookup; never blocks. */
+    public PlayerPreferences get(UUID player) {
+        PlayerPreferences p = cache.get(player);
+        return p != null ? p : PlayerPreferences.DEFAULT;
+    }
+
+    /** Start loading a joining player's record if it is not cached yet. */
+    public void load(UUID player) {
+        if (io == null || cache.containsKey(player)) return;
+        Path file = fileFor(player);
+        CompletableFuture.supplyAsync(() -> read(file), io).thenAccept(prefs -> server.execute(() -> {
+            if (prefs != null && !cache.containsKey(player)) {
+                cache.put(player, prefs);
+                notifyChange(player);
+            }
+        }));
+    }
+
+    public void update(UUID player, PlayerPreferences prefs) {
+        cache.put(player, prefs);
+        notifyChange(player);
+        if (io == null) return;
+        Path file = fileFor(player);
+        byte[] data = prefs.encode();
+        io.execute(() -> write(file, data));
+    }
+
+    /** Flush pending writes; called when the server stops. */
+    public void shutdown() {
+        if (io == null) return;
+        ExecutorService pending = io;
+        io = null;
+        dir = null;
+        pending.shutdown();
+        try {
+            pending.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean isOnline(UUID player) {
+        return server != null && server.getPlayerManager().getPlayer(player) != null;
+    }
+
+    private void notifyChange(UUID player) {
+        if (server == null) return;
+        ServerPlayerEntity online = server.getPlayerManager().getPlayer(player);
+        if (online != null) onChange.accept(online);
+    }
+
+    private Path fileFor(UUID player) {
+        return dir.resolve(player + ".bin");
+    }
+
+    // Returns null when the player has no stored record (defaults stay in effect).
+    private static PlayerPreferences read(Path file) {
+        try {
+            if (Files.notExists(file)) return null;
+            return PlayerPreferences.decode(Files.readAllBytes(file));
+        } catch (IOException e) {
+            NightNotifier.LOGGER.warn("[NightNotifier] Failed to read preferences {}", file, e);
+            return null;
+        }
+    }
+
+    private static void write(Path file, byte[] data) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(tmp, data);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            NightNotifier.LOGGER.warn("[NightNotifier] Failed to write preferences {}", file, e);
+        }
+    }
+}
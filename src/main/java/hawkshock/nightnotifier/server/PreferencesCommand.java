@@ -0,0 +1,66 @@
+package hawkshock.nightnotifier.server;
+
+import com.mojang.brigadier.arguments.BoolArgumentType;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.Text;
+
+import java.util.function.BiFunction;
+
+import static net.minecraft.server.command.CommandManager.argument;
+import static net.minecraft.server.command.CommandManager.literal;
+
+/**
+ * {@code /nightnotifier prefs [title|actionbar|sound <on>] [volume <0-200>]} - per-player channel toggles
+ * for players without the client mod. Available to everyone.
+ */
+public final class PreferencesCommand {
+    private PreferencesCommand() {}
+
+    public static void register(PreferenceStore store) {
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) ->
+                dispatcher.register(literal("nightnotifier")
+                        .then(literal("prefs")
+                                .executes(ctx -> show(ctx, store))
+                                .then(toggle("title", store, PlayerPreferences::withTitle))
+                                .then(toggle("actionbar", store, PlayerPreferences::withActionBar))
+                                .then(toggle("sound", store, PlayerPreferences::withSound))
+                                .then(literal("volume")
+                                        .then(argument("percent", IntegerArgumentType.integer(0, 200))
+                                                .executes(ctx -> {
+                                                    ServerPlayerEntity player = ctx.getSource().getPlayerOrThrow();
+                                                    PlayerPreferences updated = store.get(player.getUuid())
+                                                            .withVolume(IntegerArgumentType.getInteger(ctx, "percent"));
+                                                    store.update(player.getUuid(), updated);
+                                                    return show(ctx, store);
+                                                }))))));
+    }
+
+    private static LiteralArgumentBuilder<ServerCommandSource> toggle(
+            String channel, PreferenceStore store, BiFunction<PlayerPreferences, Boolean, PlayerPreferences> with) {
+        return literal(channel).then(argument("enabled", BoolArgumentType.bool()).executes(ctx -> {
+            ServerPlayerEntity player = ctx.getSource().getPlayerOrThrow();
+            boolean enabled = BoolArgumentType.getBool(ctx, "enabled");
+            store.update(player.getUuid(), with.apply(store.get(player.getUuid()), enabled));
+            return show(ctx, store);
+        }));
+    }
+
+    private static int show(CommandContext<ServerCommandSource> ctx, PreferenceStore store) throws CommandSyntaxException {
+        ServerPlayerEntity player = ctx.getSource().getPlayerOrThrow();
+        PlayerPreferences p = store.get(player.getUuid());
+        ctx.getSource().sendFeedback(() -> Text.literal("Night Notifier: title=" + onOff(p.title())
+                + ", actionbar=" + onOff(p.actionBar()) + ", sound=" + onOff(p.sound())
+                + ", volume=" + p.volumePercent() + "%"), false);
+        return 1;
+    }
+
+    private static String onOff(boolean v) {
+        return v ? "on" : "off";
+    }
+}
@@ -0,0 +1,41 @@
+package hawkshock.nightnotifier.server;
+
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.text.Text;
+
+import java.io.IOException;
+
+import static net.minecraft.server.command.CommandManager.literal;
+
+/**
+ * {@code /nightnotifier reload} - ops only. Re-reads {@code config/nightnotifier.json} and reapplies it
+ * to the components that cache derived state (audience rules, budgets, boss bar) and to the optional
+ * services (metrics exporter, event log, trace recorder). A file that cannot be read or parsed fails
+ * the command and the running config stays in place.
+ */
+public final class ReloadCommand {
+    private ReloadCommand() {}
+
+    @FunctionalInterface
+    public interface Reload {
+        void run(MinecraftServer server) throws IOException;
+    }
+
+    public static void register(Reload reload) {
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) ->
+                dispatcher.register(literal("nightnotifier")
+                        .then(literal("reload")
+                                .requires(src -> src.hasPermissionLevel(2))
+                                .executes(ctx -> {
+                                    try {
+                                        reload.run(ctx.getSource().getServer());
+                                    } catch (IOException e) {
+                                        ctx.getSource().sendError(Text.literal("Night Notifier: reload failed, keeping the current config: " + e.getMessage()));
+                                        return 0;
+                                    }
+                                    ctx.getSource().sendFeedback(() -> Text.literal("Night Notifier: config reloaded."), true);
+                                    return 1;
+                                }))));
+    }
+}
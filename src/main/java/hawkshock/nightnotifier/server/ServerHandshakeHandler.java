@@ -1,17 +1,29 @@
 package hawkshock.nightnotifier.server;
 
 import hawkshock.nightnotifier.config.NightNotifierConfig;
+import hawkshock.nightnotifier.metrics.NightMetrics;
 import hawkshock.nightnotifier.network.HandshakeAckPayload;
 import hawkshock.nightnotifier.network.ModHandshakePayload;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
 import net.minecraft.server.network.ServerPlayerEntity;
 
+import java.util.function.Supplier;
+
+/**
+ * Answers a modded client's handshake with the server's authoritative settings (overlay duration,
+ * rest threshold, sunrise lead, phantom screams), read from the live config so reloads apply.
+ */
 public final class ServerHandshakeHandler {
     private ServerHandshakeHandler(){}
 
-    public static void register(NightNotifierConfig cfg) {
+    public static void register(Supplier<NightNotifierConfig> config) {
+        // The client entrypoint registers these too on an integrated server; the second attempt is ignored.
+        try { ModHandshakePayload.register(); } catch (IllegalArgumentException ignored) {}
+        try { HandshakeAckPayload.register(); } catch (IllegalArgumentException ignored) {}
         ServerPlayNetworking.registerGlobalReceiver(ModHandshakePayload.ID, (payload, context) -> {
             context.server().execute(() -> {
+                long start = System.nanoTime();
+                NightNotifierConfig cfg = config.get();
                 ServerPlayerEntity player = context.player();
                 HandshakeAckPayload ack = new HandshakeAckPayload(
                         true,
@@ -21,6 +33,8 @@ public final class ServerHandshakeHandler {
                         cfg.enablePhantomScreams
                 );
                 ServerPlayNetworking.send(player, ack);
+                NightMetrics.PACKETS_SENT.increment();
+                NightMetrics.HANDSHAKE.record(System.nanoTime() - start);
             });
         });
     }
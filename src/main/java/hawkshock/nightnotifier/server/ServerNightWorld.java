@@ -0,0 +1,71 @@
+package hawkshock.nightnotifier.server;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.ServerTickManager;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.GameRules;
+import net.minecraft.world.World;
+
+import java.util.List;
+
+/** {@link NightWorld} over a live {@link ServerWorld}; rebound each tick rather than allocated. */
+public final class ServerNightWorld implements NightWorld {
+    private ServerWorld world;
+
+    public ServerNightWorld bind(ServerWorld world) {
+        this.world = world;
+        return this;
+    }
+
+    @Override
+    public RegistryKey<World> key() {
+        return world.getRegistryKey();
+    }
+
+    @Override
+    public long timeOfDay() {
+        return world.getTimeOfDay();
+    }
+
+    @Override
+    public long time() {
+        return world.getTime();
+    }
+
+    @Override
+    public boolean thundering() {
+        return world.isThundering();
+    }
+
+    @Override
+    public boolean suspended() {
+        ServerTickManager tickManager = world.getServer().getTickManager();
+        return tickManager.isSprinting() || !tickManager.shouldTick();
+    }
+
+    @Override
+    public double averageMspt() {
+        return world.getServer().getAverageNanosPerTick() / 1_000_000.0;
+    }
+
+    @Override
+    public float tickRate() {
+        return world.getTickManager().getTickRate();
+    }
+
+    @Override
+    public int sleepingPercentage() {
+        return world.getGameRules().getInt(GameRules.PLAYERS_SLEEPING_PERCENTAGE);
+    }
+
+    @Override
+    public List<ServerPlayerEntity> players() {
+        return world.getPlayers();
+    }
+
+    @Override
+    public ServerWorld world() {
+        return world;
+    }
+}
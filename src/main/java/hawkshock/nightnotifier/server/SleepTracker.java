@@ -0,0 +1,115 @@
+package hawkshock.nightnotifier.server;
+
+import hawkshock.nightnotifier.metrics.NightMetrics;
+import hawkshock.nightnotifier.network.SleepStatusPayload;
+import net.fabricmc.fabric.api.entity.event.v1.EntitySleepEvents;
+import net.fabricmc.fabric.api.entity.event.v1.ServerEntityWorldChangeEvents;
+import net.fabricmc.fabric.api.entity.event.v1.ServerPlayerEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Event-driven "X/Y sleeping" counter for the overworld.
+ *
+ * Counts are updated from bed enter/leave, join/quit, respawn, dimension and game mode change events
+ * (spectators are not counted) instead of rescanning {@code world.getPlayers()}. Changes are coalesced per tick; modded clients get a
+ * {@link SleepStatusPayload} and the boss bar title is rewritten only when a count actually changes.
+ */
+public final class SleepTracker {
+    // For the game mode mixin, which has no other way to reach the tracker.
+    private static SleepTracker instance;
+
+    private final Set<UUID> present = new HashSet<>();
+    private final Set<UUID> sleeping = new HashSet<>();
+    private boolean dirty = false;
+
+    private int lastSleeping = -1;
+    private int lastTotal = -1;
+    private int lastRequired = -1;
+
+    public void register() {
+        instance = this;
+        EntitySleepEvents.START_SLEEPING.register((entity, pos) -> {
+            if (entity instanceof ServerPlayerEntity p && inOverworld(p)) {
+                dirty |= sleeping.add(p.getUuid());
+            }
+        });
+        EntitySleepEvents.STOP_SLEEPING.register((entity, pos) -> {
+            if (entity instanceof ServerPlayerEntity p) {
+                dirty |= sleeping.remove(p.getUuid());
+            }
+        });
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> place(handler.getPlayer()));
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> remove(handler.getPlayer().getUuid()));
+        ServerEntityWorldChangeEvents.AFTER_PLAYER_CHANGE_WORLD.register((player, origin, destination) -> place(player));
+        ServerPlayerEvents.AFTER_RESPAWN.register((oldPlayer, newPlayer, alive) -> place(newPlayer));
+    }
+
+    /** Called from ServerPlayerEntityMixin after a successful game mode change. */
+    public static void onGameModeChanged(ServerPlayerEntity player) {
+        if (instance != null) instance.place(player);
+    }
+
+    /** Re-read the gamerule on the next flush even if no count changed (e.g. at nightfall). */
+    public void markDirty() {
+        dirty = true;
+    }
+
+    public int sleeping() { return sleeping.size(); }
+
+    public int total() { return present.size(); }
+
+    /**
+     * Called once per overworld tick. Cheap no-op unless an event changed the counts.
+     * @param bossBar shared night bar whose title shows the count, or null
+     */
+    public void flush(NightWorld world, NightBossBar bossBar) {
+        if (!dirty) return;
+        dirty = false;
+
+        int total = present.size();
+        int asleep = sleeping.size();
+        int percent = world.sleepingPercentage();
+        int required = Math.max(1, MathHelper.ceil(total * percent / 100.0f));
+        if (asleep == lastSleeping && total == lastTotal && required == lastRequired) return;
+        lastSleeping = asleep;
+        lastTotal = total;
+        lastRequired = required;
+
+        SleepStatusPayload payload = new SleepStatusPayload(asleep, total, required);
+        for (ServerPlayerEntity p : world.players()) {
+            if (ServerPlayNetworking.canSend(p, SleepStatusPayload.ID)) {
+                ServerPlayNetworking.send(p, payload);
+                NightMetrics.PACKETS_SENT.increment();
+            }
+        }
+        if (bossBar != null) bossBar.showSleeping(asleep, required);
+    }
+
+    private void place(ServerPlayerEntity player) {
+        UUID id = player.getUuid();
+        if (inOverworld(player) && !player.isSpectator()) {
+            dirty |= present.add(id);
+            if (player.isSleeping()) dirty |= sleeping.add(id);
+            else dirty |= sleeping.remove(id);
+        } else {
+            remove(id);
+        }
+    }
+
+    private void remove(UUID id) {
+        dirty |= present.remove(id);
+        dirty |= sleeping.remove(id);
+    }
+
+    private static boolean inOverworld(ServerPlayerEntity player) {
+        return player.getEntityWorld().getRegistryKey().equals(World.OVERWORLD);
+    }
+}
@@ -0,0 +1,92 @@
+package hawkshock.nightnotifier.server;
+
+import hawkshock.nightnotifier.api.NightNotifierEvents;
+import hawkshock.nightnotifier.api.NightSnapshot;
+import hawkshock.nightnotifier.metrics.NightMetrics;
+import hawkshock.nightnotifier.time.NightClock;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.stat.Stats;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Builds {@link NightSnapshot}s on the server thread.
+ *
+ * Night state is compared every tick (no allocation unless it changed); the offender list is
+ * rescanned every {@code refreshTicks} or on a phase change through an {@link OffenderScan}, which
+ * allocates nothing while the ranking holds. A new snapshot is published only when something
+ * differs from the current one, so offenders' {@code ticksSinceRest} is as of the last publish.
+ *
+ * The rescan is also the offender check behind {@code OFFENDER_THRESHOLD_CROSSED}: it runs on
+ * every transition tick before any broadcast, so the event fires whether or not a notification
+ * goes out.
+ */
+public final class SnapshotPublisher {
+    private static volatile NightSnapshot current = NightSnapshot.EMPTY;
+
+    private final OffenderScan<ServerPlayerEntity> scan =
+            new OffenderScan<>(SnapshotPublisher::timeSinceRest, ServerPlayerEntity::getUuid);
+    private long nextScanTime = Long.MIN_VALUE;
+    private List<NightSnapshot.Offender> offenders = List.of();
+    // Offenders as of the previous rescan, for OFFENDER_THRESHOLD_CROSSED.
+    private final Set<UUID> known = new HashSet<>();
+
+    public static NightSnapshot current() {
+        return current;
+    }
+
+    public void tick(NightWorld world, NightClock clock, int restThresholdTicks, int refreshTicks) {
+        NightSnapshot snap = current;
+        long sunrise = clock.timeOfDay() + clock.ticksUntilSunrise();
+        boolean phaseChanged = snap.phase() != clock.phase() || snap.canSleep() != clock.canSleep();
+
+        long now = world.time();
+        boolean offendersChanged = false;
+        if (phaseChanged || now >= nextScanTime || snap.restThresholdTicks() != restThresholdTicks) {
+            nextScanTime = now + Math.max(1, refreshTicks);
+            if (scan.scan(world.players(), restThresholdTicks)) {
+                offenders = offenders();
+                offendersChanged = true;
+                fireThresholdCrossings(world);
+            }
+        }
+
+        if (!phaseChanged && !offendersChanged
+                && snap.sunriseTimeOfDay() == sunrise && snap.restThresholdTicks() == restThresholdTicks) {
+            return;
+        }
+        current = new NightSnapshot(snap.version() + 1, clock.phase(), clock.canSleep(), sunrise,
+                restThresholdTicks, offenders);
+    }
+
+    private List<NightSnapshot.Offender> offenders() {
+        NightSnapshot.Offender[] list = new NightSnapshot.Offender[scan.count()];
+        for (int k = 0; k < list.length; k++) {
+            ServerPlayerEntity p = scan.get(k);
+            list[k] = new NightSnapshot.Offender(p.getUuid(), p.getName().getString(), scan.ticksSinceRest(k));
+        }
+        return List.of(list);
+    }
+
+    // Only reached when the ranking changed; a newcomer always changes it.
+    private void fireThresholdCrossings(NightWorld world) {
+        Set<UUID> current = new HashSet<>(scan.count() * 2);
+        for (int k = 0; k < scan.count(); k++) {
+            ServerPlayerEntity p = scan.get(k);
+            current.add(p.getUuid());
+            if (!known.contains(p.getUuid())) {
+                NightNotifierEvents.OFFENDER_THRESHOLD_CROSSED.invoker().onThresholdCrossed(world.world(), p, scan.ticksSinceRest(k));
+                NightMetrics.EVENTS_FIRED.increment();
+            }
+        }
+        known.clear();
+        known.addAll(current);
+    }
+
+    private static int timeSinceRest(ServerPlayerEntity p) {
+        return p.getStatHandler().getStat(Stats.CUSTOM.getOrCreateStat(Stats.TIME_SINCE_REST));
+    }
+}
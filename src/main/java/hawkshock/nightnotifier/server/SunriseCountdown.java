@@ -0,0 +1,51 @@
+package hawkshock.nightnotifier.server;
+
+import hawkshock.nightnotifier.metrics.NightMetrics;
+import hawkshock.nightnotifier.network.OverlayMessagePayload;
+import hawkshock.nightnotifier.time.NightClock;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.network.packet.s2c.play.OverlayMessageS2CPacket;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.Text;
+
+import java.util.Arrays;
+
+/**
+ * Live "Ns Until Sunrise" action-bar countdown for players without the mod.
+ *
+ * The update rate adapts to the time left (see {@link CountdownSchedule}). Each countdown value's
+ * Text is built once and cached; one packet instance is shared by all recipients of an update.
+ */
+public final class SunriseCountdown {
+    private Text[] labels = new Text[64];
+    private final CountdownSchedule schedule = new CountdownSchedule();
+
+    /** Called once per overworld tick with the fresh clock snapshot. */
+    public void tick(NightWorld world, NightClock clock, boolean enabled, PreferenceStore prefs) {
+        int seconds = schedule.due(clock, enabled, world.tickRate());
+        if (seconds < 0) return;
+
+        OverlayMessageS2CPacket packet = null;
+        for (ServerPlayerEntity player : world.players()) {
+            // Modded clients already show the overlay and progress bar.
+            if (ServerPlayNetworking.canSend(player, OverlayMessagePayload.ID)) continue;
+            if (!prefs.get(player.getUuid()).actionBar()) continue;
+            if (packet == null) packet = new OverlayMessageS2CPacket(label(seconds));
+            player.networkHandler.sendPacket(packet);
+            NightMetrics.PACKETS_SENT.increment();
+            NightMetrics.notified(NightMetrics.Channel.COUNTDOWN);
+        }
+    }
+
+    private Text label(int seconds) {
+        if (seconds >= labels.length) {
+            labels = Arrays.copyOf(labels, Math.max(seconds + 1, labels.length * 2));
+        }
+        Text t = labels[seconds];
+        if (t == null) {
+            t = Text.literal(seconds + "s Until Sunrise");
+            labels[seconds] = t;
+        }
+        return t;
+    }
+}
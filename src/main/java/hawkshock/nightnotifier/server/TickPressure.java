@@ -0,0 +1,91 @@
+package hawkshock.nightnotifier.server;
+
+/**
+ * Load-aware degradation: maps the server's average tick time (MSPT) to a broadcast {@link Tier}.
+ *
+ * The tier steps down as soon as MSPT reaches the next threshold and only steps back up once MSPT
+ * has fallen below the current tier's threshold times the recovery ratio, so a server hovering
+ * around a threshold does not flip between tiers. Fed once per overworld tick (a field read and a
+ * few compares), so the tier reflects the load history rather than a single sample. Server thread only.
+ */
+public final class TickPressure {
+    /** Each tier keeps the reductions of the tiers before it. */
+    public enum Tier {
+        FULL,
+        /** No phantom sounds for vanilla clients. */
+        NO_SOUNDS,
+        /** No title/subtitle packets; vanilla clients get the action bar instead. */
+        NO_TITLES,
+        /** Message names the top offender only. */
+        TOP_OFFENDER,
+        /** Broadcast held until MSPT recovers or the deferral limit runs out. */
+        DEFER;
+
+        public boolean sounds() {
+            return this == FULL;
+        }
+
+        public boolean titles() {
+            return ordinal() < NO_TITLES.ordinal();
+        }
+
+        public boolean offenderList() {
+            return ordinal() < TOP_OFFENDER.ordinal();
+        }
+    }
+
+    private static final Tier[] TIERS = Tier.values();
+    private static final double[] DEFAULT_MSPT = {50.0, 60.0, 75.0, 100.0};
+
+    private boolean enabled;
+    // thresholds[i] is the MSPT at which TIERS[i + 1] starts.
+    private final double[] thresholds = new double[TIERS.length - 1];
+    private double recoverRatio;
+    private Tier tier = Tier.FULL;
+    private double lastMspt;
+
+    public TickPressure(boolean enabled, double[] tierMspt, double recoverRatio) {
+        configure(enabled, tierMspt, recoverRatio);
+    }
+
+    /** {@code tierMspt} needs one ascending threshold per tier after FULL; anything else falls back to the defaults. */
+    public void configure(boolean enabled, double[] tierMspt, double recoverRatio) {
+        this.enabled = enabled;
+        double[] source = tierMspt != null && tierMspt.length == thresholds.length ? tierMspt : DEFAULT_MSPT;
+        double floor = 0.0;
+        for (int i = 0; i < thresholds.length; i++) {
+            floor = Math.max(floor, source[i]);
+            thresholds[i] = floor;
+        }
+        this.recoverRatio = Math.max(0.0, Math.min(1.0, recoverRatio));
+        if (!enabled) tier = Tier.FULL;
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /** Feed the current MSPT and return the tier to broadcast at. Always FULL when disabled. */
+    public Tier update(double mspt) {
+        lastMspt = mspt;
+        if (!enabled) return tier = Tier.FULL;
+        int target = 0;
+        while (target < thresholds.length && mspt >= thresholds[target]) target++;
+        int current = tier.ordinal();
+        if (target > current) {
+            current = target;
+        } else {
+            while (current > target && mspt < thresholds[current - 1] * recoverRatio) current--;
+        }
+        return tier = TIERS[current];
+    }
+
+    public Tier tier() {
+        return tier;
+    }
+
+    /** MSPT passed to the last {@link #update}. */
+    public double lastMspt() {
+        return lastMspt;
+    }
+}
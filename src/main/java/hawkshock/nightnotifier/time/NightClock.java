@@ -0,0 +1,122 @@
+package hawkshock.nightnotifier.time;
+
+/**
+ * Shared day-phase math for the server tick handler, the client simulation and the HUD.
+ *
+ * Call {@link #update} once per tick with the world's time of day; every reader then uses the
+ * cached snapshot instead of recomputing it. Holds no Minecraft types and never allocates.
+ */
+public final class NightClock {
+    public static final long TICKS_PER_DAY = 24000L;
+    public static final long NIGHT_START = 12541L;
+    public static final long NIGHT_END   = 23458L;
+    public static final long NIGHT_LENGTH = Math.floorMod(NIGHT_END - NIGHT_START, TICKS_PER_DAY);
+
+    public enum Phase {
+        /** Players cannot sleep. */
+        DAY,
+        /** Daytime thunderstorm: sleeping allowed, no sunrise warning. */
+        STORM,
+        /** Natural night before the sunrise warning window. */
+        NIGHT,
+        /** Natural night inside the configured lead before sunrise. */
+        SUNRISE_WARNING
+    }
+
+    private long timeOfDay;
+    private long dayTime;
+    private long dayNumber;
+    private boolean thundering;
+    private boolean naturalNight;
+    private boolean canSleep;
+    private Phase phase = Phase.DAY;
+    private long ticksUntilSunrise;
+    private float fraction;
+    private long nextTransitionTick;
+    private long warningStartTick = NIGHT_START;
+
+    /**
+     * Recompute the snapshot. {@code leadTicks} is the sunrise warning lead (clamped to >= 0).
+     */
+    public void update(long timeOfDay, boolean thundering, int leadTicks) {
+        this.timeOfDay = timeOfDay;
+        this.dayTime = Math.floorMod(timeOfDay, TICKS_PER_DAY);
+        this.dayNumber = Math.floorDiv(timeOfDay, TICKS_PER_DAY);
+        this.thundering = thundering;
+        this.naturalNight = dayTime >= NIGHT_START && dayTime <= NIGHT_END;
+        this.canSleep = thundering || naturalNight;
+
+        int lead = Math.max(0, leadTicks);
+        this.warningStartTick = warningStartTick(lead);
+
+        // remaining ticks until sunrise (robust around wrap)
+        this.ticksUntilSunrise = Math.floorMod(NIGHT_END - dayTime, TICKS_PER_DAY);
+        float frac = NIGHT_LENGTH > 0 ? (float) ticksUntilSunrise / (float) NIGHT_LENGTH : 0f;
+        this.fraction = Math.max(0f, Math.min(1f, frac));
+
+        if (naturalNight) {
+            boolean warning = !thundering && lead > 0 && dayTime >= warningStartTick && dayTime < NIGHT_END;
+            this.phase = warning ? Phase.SUNRISE_WARNING : Phase.NIGHT;
+            // NIGHT_END itself is still night; the first day tick follows it.
+            this.nextTransitionTick = timeOfDay + (NIGHT_END - dayTime) + 1;
+        } else {
+            this.phase = thundering ? Phase.STORM : Phase.DAY;
+            this.nextTransitionTick = timeOfDay + Math.floorMod(NIGHT_START - dayTime, TICKS_PER_DAY);
+        }
+    }
+
+    /** First time of day at which the sunrise warning may fire for the given lead. */
+    public static long warningStartTick(int leadTicks) {
+        return Math.max(NIGHT_START, NIGHT_END - Math.max(0, leadTicks));
+    }
+
+    /**
+     * Whole seconds (rounded up) that {@code ticks} take at the given tick rate.
+     * Falls back to the vanilla 20 ticks/s when the rate is not positive.
+     */
+    public static int secondsFor(long ticks, float tickRate) {
+        double rate = tickRate > 0f ? tickRate : 20.0;
+        return Math.max(0, (int) Math.ceil((double) ticks / rate));
+    }
+
+    /**
+     * Progress-bar color band shared by the HUD and the server boss bar:
+     * 0 = within the sunrise lead, 1 = top third of the night, 2 = middle, 3 = last third.
+     */
+    public int progressSection(int leadTicks) {
+        if (ticksUntilSunrise <= leadTicks) return 0;
+        if (fraction > 0.66f) return 1;
+        if (fraction > 0.33f) return 2;
+        return 3;
+    }
+
+    public Phase phase() { return phase; }
+
+    /** Absolute world time of day passed to the last {@link #update}. */
+    public long timeOfDay() { return timeOfDay; }
+
+    /** Time of day within the current day, 0..23999. */
+    public long dayTime() { return dayTime; }
+
+    /** Number of whole days elapsed; stable across a night since nights do not cross midnight. */
+    public long dayNumber() { return dayNumber; }
+
+    public boolean thundering() { return thundering; }
+
+    public boolean naturalNight() { return naturalNight; }
+
+    public boolean canSleep() { return canSleep; }
+
+    public boolean inWarningWindow() { return phase == Phase.SUNRISE_WARNING; }
+
+    public long warningStartTick() { return warningStartTick; }
+
+    /** Ticks until NIGHT_END, wrapping into the next day when it has already passed. */
+    public long ticksUntilSunrise() { return ticksUntilSunrise; }
+
+    /** Remaining share of the night, 1 at nightfall down to 0 at sunrise (clamped). */
+    public float fraction() { return fraction; }
+
+    /** Absolute time of day at which the natural day/night state next flips. */
+    public long nextTransitionTick() { return nextTransitionTick; }
+}
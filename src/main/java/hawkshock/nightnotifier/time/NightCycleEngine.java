@@ -0,0 +1,86 @@
+package hawkshock.nightnotifier.time;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-world night transition logic: edge detection, storm debouncing, time-jump handling and the
+ * once-per-night sunrise warning.
+ *
+ * Reads time and weather from pluggable sources so the same code runs against a {@code ServerWorld}
+ * or the simulator. {@link #tick} returns the transitions that fired as a bit mask; it holds no
+ * Minecraft types and never allocates. One instance per world, single-threaded.
+ */
+public final class NightCycleEngine {
+    public static final int NIGHT_START = 1;
+    public static final int SUNRISE_IMMINENT = 1 << 1;
+    public static final int SUNRISE = 1 << 2;
+
+    private final LongSupplier timeOfDay;
+    private final LongSupplier gameTime;
+    private final BooleanSupplier thundering;
+    private final NightClock clock = new NightClock();
+    private final SleepWindowHysteresis hysteresis = new SleepWindowHysteresis();
+    private boolean known = false;
+    private boolean open = false;
+    private boolean sunriseWarned = false;
+
+    /**
+     * @param timeOfDay  absolute time of day (what {@code /time set} changes)
+     * @param gameTime   monotonic game time, used for storm dwell
+     * @param thundering current thunderstorm state
+     */
+    public NightCycleEngine(LongSupplier timeOfDay, LongSupplier gameTime, BooleanSupplier thundering) {
+        this.timeOfDay = timeOfDay;
+        this.gameTime = gameTime;
+        this.thundering = thundering;
+    }
+
+    /** Advance one tick and return the transitions that fired ({@link #NIGHT_START} etc.), 0 if none. */
+    public int tick(int leadTicks, int stormDwellTicks) {
+        long lastTime = clock.timeOfDay();
+        long lastNextTransition = clock.nextTransitionTick();
+        clock.update(timeOfDay.getAsLong(), thundering.getAsBoolean(), leadTicks);
+
+        // Thunder flapping during the day must hold for stormDwellTicks before it counts as an edge.
+        boolean canSleepNow = hysteresis.update(clock.canSleep(), clock.naturalNight(), gameTime.getAsLong(), stormDwellTicks);
+        boolean previous = open;
+
+        // Time jumped (sprint, /time set) over at least one sunrise into another night: treat it as a new night.
+        // The raw state must allow sleeping too; a storm close still in its dwell time is not a new night.
+        if (known && previous && canSleepNow && clock.canSleep()
+                && clock.timeOfDay() - lastTime > 1 && clock.timeOfDay() >= lastNextTransition
+                && clock.dayNumber() != Math.floorDiv(lastTime, NightClock.TICKS_PER_DAY)) {
+            previous = false;
+        }
+
+        int fired = 0;
+        if (canSleepNow && !previous) {
+            fired |= NIGHT_START;
+            sunriseWarned = false;
+        }
+        if (clock.inWarningWindow() && !sunriseWarned) {
+            fired |= SUNRISE_IMMINENT;
+            sunriseWarned = true;
+        }
+        if (!canSleepNow && previous) {
+            fired |= SUNRISE;
+            sunriseWarned = false;
+        }
+
+        known = true;
+        open = canSleepNow;
+        return fired;
+    }
+
+    /** Day-phase snapshot as of the last {@link #tick}. */
+    public NightClock clock() { return clock; }
+
+    /** Debounced sleep window as of the last {@link #tick}. */
+    public boolean open() { return open; }
+
+    public boolean sunriseWarned() { return sunriseWarned; }
+
+    /** True while a weather-driven change is waiting out its dwell time. */
+    public boolean stormPending() { return hysteresis.pending(); }
+}
@@ -0,0 +1,49 @@
+package hawkshock.nightnotifier.time;
+
+/**
+ * Debounces the raw "can sleep" signal against thunderstorm flapping.
+ *
+ * A change caused by weather only takes effect after it has held for {@code dwellTicks};
+ * a change that coincides with the natural day/night boundary is accepted immediately so
+ * nightfall and sunrise are never delayed. One instance per world, server thread only.
+ */
+public final class SleepWindowHysteresis {
+    private boolean stable = false;
+    private boolean lastNatural = false;
+    private long pendingSince = -1L;
+    private boolean initialized = false;
+
+    /**
+     * @param raw          current {@link NightClock#canSleep()}
+     * @param naturalNight current {@link NightClock#naturalNight()}
+     * @param now          monotonic game time in ticks
+     * @param dwellTicks   how long a weather-driven change must hold; 0 disables debouncing
+     * @return the debounced state
+     */
+    public boolean update(boolean raw, boolean naturalNight, long now, int dwellTicks) {
+        boolean naturalEdge = initialized && naturalNight != lastNatural;
+        lastNatural = naturalNight;
+
+        if (!initialized || dwellTicks <= 0 || naturalEdge) {
+            initialized = true;
+            stable = raw;
+            pendingSince = -1L;
+            return stable;
+        }
+        if (raw == stable) {
+            pendingSince = -1L;
+            return stable;
+        }
+        if (pendingSince < 0) pendingSince = now;
+        if (now - pendingSince >= dwellTicks) {
+            stable = raw;
+            pendingSince = -1L;
+        }
+        return stable;
+    }
+
+    public boolean stable() { return stable; }
+
+    /** True while a weather-driven change is waiting out its dwell time. */
+    public boolean pending() { return pendingSince >= 0; }
+}
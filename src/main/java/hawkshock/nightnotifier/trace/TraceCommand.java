@@ -0,0 +1,47 @@
+package hawkshock.nightnotifier.trace;
+
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.text.Text;
+
+import static net.minecraft.server.command.CommandManager.literal;
+
+/**
+ * {@code /nightnotifier trace [start|stop]} - ops only. Starts or finishes a {@link TraceRecorder}
+ * trace; without an argument reports the file being recorded.
+ */
+public final class TraceCommand {
+    private TraceCommand() {}
+
+    public static void register(TraceRecorder recorder) {
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) ->
+                dispatcher.register(literal("nightnotifier")
+                        .then(literal("trace")
+                                .requires(src -> src.hasPermissionLevel(2))
+                                .executes(ctx -> {
+                                    String text = recorder.recording()
+                                            ? "Night Notifier: recording " + recorder.file().getFileName()
+                                            : "Night Notifier: no trace is being recorded.";
+                                    ctx.getSource().sendFeedback(() -> Text.literal(text), false);
+                                    return recorder.recording() ? 1 : 0;
+                                })
+                                .then(literal("start").executes(ctx -> {
+                                    if (!recorder.start(ctx.getSource().getServer())) {
+                                        ctx.getSource().sendError(Text.literal("Night Notifier: a trace is already being recorded."));
+                                        return 0;
+                                    }
+                                    String name = recorder.file().getFileName().toString();
+                                    ctx.getSource().sendFeedback(() -> Text.literal("Night Notifier: recording " + name), true);
+                                    return 1;
+                                }))
+                                .then(literal("stop").executes(ctx -> {
+                                    if (!recorder.recording()) {
+                                        ctx.getSource().sendError(Text.literal("Night Notifier: no trace is being recorded."));
+                                        return 0;
+                                    }
+                                    String name = recorder.file().getFileName().toString();
+                                    recorder.stop();
+                                    ctx.getSource().sendFeedback(() -> Text.literal("Night Notifier: saved " + name), true);
+                                    return 1;
+                                })))));
+    }
+}
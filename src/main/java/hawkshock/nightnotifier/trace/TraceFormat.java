@@ -0,0 +1,54 @@
+package hawkshock.nightnotifier.trace;
+
+/**
+ * Layout of {@code .nntrace} files.
+ *
+ * Header: magic {@code NNTR}, version, start game time, start time of day, weather flags, the recording config
+ * (rest threshold, sunrise lead, storm dwell, max offender names) and the world id. Then records,
+ * each a tag byte followed by the game-time delta since the previous record and the tag's fields.
+ * Integers are varints (signed values zigzag-encoded) except the magic and UUIDs, which are fixed width.
+ *
+ * Most of the timeline is implied rather than stored: time of day advances at the last recorded
+ * rate (0 or 1 per tick) and an online player's TIME_SINCE_REST by one per tick. Records are only
+ * written where reality departs from that prediction ({@code /time set}, sleeping, weather changes,
+ * joins, leaves and moves into or out of the overworld). A joining player is in the overworld unless
+ * a WORLD record follows.
+ *
+ * Version 2 added REST and WORLD; a version 1 trace reads as one in which nobody left the overworld
+ * and rests were only caught by the periodic samples.
+ */
+public final class TraceFormat {
+    private TraceFormat() {}
+
+    public static final int MAGIC = 0x4E4E5452; // "NNTR"
+    public static final int VERSION = 2;
+    public static final String EXTENSION = ".nntrace";
+
+    /** End of trace; written on a clean stop. */
+    public static final int END = 0;
+    /** Time of day (varint) and the rate it advances at from here on (0 or 1). */
+    public static final int TIME = 1;
+    /** Weather flags: bit 0 raining, bit 1 thundering. */
+    public static final int WEATHER = 2;
+    /** Player index, UUID (two fixed 8-byte longs), name, TIME_SINCE_REST. */
+    public static final int JOIN = 3;
+    /** Player index. */
+    public static final int LEAVE = 4;
+    /** Player index and the zigzag difference between the actual and predicted TIME_SINCE_REST. */
+    public static final int SAMPLE = 5;
+    /** Player index; TIME_SINCE_REST was reset to 0 (the player got into bed). */
+    public static final int REST = 6;
+    /** Player index and 1 if the player is now in the overworld, 0 if elsewhere. */
+    public static final int WORLD = 7;
+
+    public static final int RAINING = 1;
+    public static final int THUNDERING = 2;
+
+    public static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    public static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
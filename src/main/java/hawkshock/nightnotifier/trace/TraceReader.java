@@ -0,0 +1,152 @@
+package hawkshock.nightnotifier.trace;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Decodes a {@code .nntrace} stream into absolute values for a {@link Visitor}.
+ *
+ * Resolves every delta and prediction the {@link TraceWriter} relied on, so visitors see actual
+ * game times, times of day and TIME_SINCE_REST values. A trace cut off mid-record (a crashed
+ * server) ends at the last complete record; a record naming a player index that never joined is
+ * rejected as corrupt.
+ */
+public final class TraceReader {
+    /** Time of day advances by one per tick from the header until the first TIME record. */
+    public record Header(long gameTime, long timeOfDay, int weather, int restThresholdTicks, int leadTicks,
+                         int stormDwellTicks, int maxOffenderNames, String world) {}
+
+    public interface Visitor {
+        void header(Header header);
+
+        /** Time of day is {@code timeOfDay} at {@code gameTime} and advances by {@code rate} per tick after it. */
+        void time(long gameTime, long timeOfDay, int rate);
+
+        void weather(long gameTime, boolean raining, boolean thundering);
+
+        void join(long gameTime, int index, UUID player, String name, int ticksSinceRest);
+
+        void leave(long gameTime, int index);
+
+        /** Corrected TIME_SINCE_REST; between samples it grows by one per tick while online. */
+        void sample(long gameTime, int index, int ticksSinceRest);
+
+        /** TIME_SINCE_REST was reset to 0 (the player got into bed). */
+        void rest(long gameTime, int index);
+
+        /** The player moved into ({@code overworld}) or out of the overworld. */
+        void world(long gameTime, int index, boolean overworld);
+
+        /** Last record; {@code clean} is false when the trace was truncated. */
+        void end(long gameTime, boolean clean);
+    }
+
+    private TraceReader() {}
+
+    public static void read(InputStream in, Visitor visitor) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+        if (data.readInt() != TraceFormat.MAGIC) throw new IOException("Not a NightNotifier trace");
+        int version = (int) readVar(data);
+        if (version < 1 || version > TraceFormat.VERSION) throw new IOException("Unsupported trace version " + version);
+        Header header = new Header(readVar(data), readVar(data), (int) readVar(data), (int) readVar(data),
+                (int) TraceFormat.unzigzag(readVar(data)), (int) readVar(data), (int) readVar(data), readString(data));
+        visitor.header(header);
+
+        long gameTime = header.gameTime();
+        long[] tsr = new long[32];
+        long[] tsrGame = new long[32];
+        int players = 0;
+        while (true) {
+            int tag = data.read();
+            if (tag < 0) {
+                visitor.end(gameTime, false);
+                return;
+            }
+            try {
+                gameTime += readVar(data);
+                switch (tag) {
+                    case TraceFormat.END -> {
+                        visitor.end(gameTime, true);
+                        return;
+                    }
+                    case TraceFormat.TIME -> {
+                        long timeOfDay = readVar(data);
+                        visitor.time(gameTime, timeOfDay, (int) readVar(data));
+                    }
+                    case TraceFormat.WEATHER -> {
+                        int flags = (int) readVar(data);
+                        visitor.weather(gameTime, (flags & TraceFormat.RAINING) != 0, (flags & TraceFormat.THUNDERING) != 0);
+                    }
+                    case TraceFormat.JOIN -> {
+                        int index = (int) readVar(data);
+                        // Indices are handed out in join order, so a new one is always the next.
+                        if (index < 0 || index > players) throw new IOException("Trace JOIN for player " + index + " out of order");
+                        players = Math.max(players, index + 1);
+                        UUID player = new UUID(data.readLong(), data.readLong());
+                        String name = readString(data);
+                        int ticks = (int) readVar(data);
+                        if (index >= tsr.length) {
+                            tsr = Arrays.copyOf(tsr, Math.max(index + 1, tsr.length * 2));
+                            tsrGame = Arrays.copyOf(tsrGame, tsr.length);
+                        }
+                        tsr[index] = ticks;
+                        tsrGame[index] = gameTime;
+                        visitor.join(gameTime, index, player, name, ticks);
+                    }
+                    case TraceFormat.LEAVE -> visitor.leave(gameTime, player(data, players, tag));
+                    case TraceFormat.SAMPLE -> {
+                        int index = player(data, players, tag);
+                        long actual = tsr[index] + (gameTime - tsrGame[index]) + TraceFormat.unzigzag(readVar(data));
+                        tsr[index] = actual;
+                        tsrGame[index] = gameTime;
+                        visitor.sample(gameTime, index, (int) actual);
+                    }
+                    case TraceFormat.REST -> {
+                        int index = player(data, players, tag);
+                        tsr[index] = 0;
+                        tsrGame[index] = gameTime;
+                        visitor.rest(gameTime, index);
+                    }
+                    case TraceFormat.WORLD -> {
+                        int index = player(data, players, tag);
+                        visitor.world(gameTime, index, readVar(data) != 0);
+                    }
+                    default -> throw new IOException("Unknown trace record " + tag);
+                }
+            } catch (EOFException e) {
+                visitor.end(gameTime, false);
+                return;
+            }
+        }
+    }
+
+    private static int player(DataInputStream in, int players, int tag) throws IOException {
+        long index = readVar(in);
+        if (index < 0 || index >= players) throw new IOException("Trace record " + tag + " for unknown player " + index);
+        return (int) index;
+    }
+
+    private static long readVar(DataInputStream in) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int n = (int) readVar(in);
+        if (n < 0 || n > 1024) throw new IOException("Bad string length " + n);
+        byte[] b = new byte[n];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
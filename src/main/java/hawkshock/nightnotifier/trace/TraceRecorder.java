@@ -0,0 +1,189 @@
+package hawkshock.nightnotifier.trace;
+
+import hawkshock.nightnotifier.NightNotifier;
+import hawkshock.nightnotifier.config.NightNotifierConfig;
+import net.fabricmc.fabric.api.entity.event.v1.EntitySleepEvents;
+import net.fabricmc.fabric.api.entity.event.v1.ServerEntityWorldChangeEvents;
+import net.fabricmc.fabric.api.entity.event.v1.ServerPlayerEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.stat.Stats;
+import net.minecraft.util.WorldSavePath;
+import net.minecraft.world.World;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Records the overworld's timeline into {@code <world>/nightnotifier/traces/trace-<stamp>.nntrace}
+ * for {@code TraceReplayer}: time of day, weather, joins and leaves, moves into and out of the
+ * overworld, players getting into bed, and every {@code traceSampleTicks} a TIME_SINCE_REST check of
+ * each online player.
+ *
+ * The server thread only encodes into the {@link TraceWriter}'s buffer; chunks are appended to the
+ * file on a single writer thread when they fill up or every few seconds, so a crash loses at most
+ * that much of the tail.
+ */
+public final class TraceRecorder {
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd-HHmmss");
+    private static final int CHUNK_BYTES = 64 * 1024;
+    private static final long FLUSH_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final Supplier<NightNotifierConfig> cfg;
+    private TraceWriter writer;
+    private MinecraftServer server;
+    private ExecutorService io;
+    private Path file;
+    private int sampleTicks;
+    private long lastGameTime;
+    private long lastFlush;
+
+    public TraceRecorder(Supplier<NightNotifierConfig> cfg) {
+        this.cfg = cfg;
+    }
+
+    public void register() {
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            if (cfg.get().enableTraceRecorder) start(server);
+        });
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> stop());
+        ServerTickEvents.END_SERVER_TICK.register(this::onTick);
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
+            if (writer != null) join(handler.getPlayer());
+        });
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
+            if (writer != null) writer.leave(lastGameTime, handler.getPlayer().getUuid());
+        });
+        EntitySleepEvents.START_SLEEPING.register((entity, pos) -> {
+            if (writer != null && entity instanceof ServerPlayerEntity p) writer.rest(now(), p.getUuid());
+        });
+        ServerEntityWorldChangeEvents.AFTER_PLAYER_CHANGE_WORLD.register((player, origin, destination) -> {
+            if (writer != null) writer.world(now(), player.getUuid(), inOverworld(player));
+        });
+        ServerPlayerEvents.AFTER_RESPAWN.register((oldPlayer, newPlayer, alive) -> {
+            if (writer != null) writer.world(now(), newPlayer.getUuid(), inOverworld(newPlayer));
+        });
+        TraceCommand.register(this);
+    }
+
+    public boolean recording() {
+        return writer != null;
+    }
+
+    /** The active trace file, or null. */
+    public Path file() {
+        return file;
+    }
+
+    /** Start a new trace file; returns false if one is already being recorded. */
+    public boolean start(MinecraftServer server) {
+        if (writer != null) return false;
+        NightNotifierConfig c = cfg.get();
+        this.server = server;
+        ServerWorld world = server.getOverworld();
+        Path dir = server.getSavePath(WorldSavePath.ROOT).resolve("nightnotifier").resolve("traces");
+        file = dir.resolve("trace-" + STAMP.format(LocalDateTime.now()) + TraceFormat.EXTENSION);
+        sampleTicks = Math.max(1, c.traceSampleTicks);
+        lastGameTime = world.getTime();
+        writer = new TraceWriter(lastGameTime, world.getTimeOfDay(), weatherFlags(world), c.restThresholdTicks,
+                c.morningWarningLeadTicks, c.stormDwellTicks, c.maxOffenderNames, world.getRegistryKey().getValue().toString());
+        io = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "NightNotifier-Trace");
+            t.setDaemon(true);
+            return t;
+        });
+        Path target = file;
+        io.execute(() -> {
+            try {
+                Files.createDirectories(target.getParent());
+            } catch (IOException e) {
+                NightNotifier.LOGGER.warn("[NightNotifier] Cannot create {}", target.getParent(), e);
+            }
+        });
+        for (ServerPlayerEntity p : server.getPlayerManager().getPlayerList()) join(p);
+        flush();
+        NightNotifier.LOGGER.info("[NightNotifier] Recording trace to {}", file);
+        return true;
+    }
+
+    /** Finish the trace (END record, final flush); no-op when not recording. */
+    public void stop() {
+        if (writer == null) return;
+        writer.end(lastGameTime);
+        flush();
+        writer = null;
+        server = null;
+        ExecutorService pending = io;
+        io = null;
+        pending.shutdown();
+        try {
+            pending.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        NightNotifier.LOGGER.info("[NightNotifier] Trace saved to {}", file);
+        file = null;
+    }
+
+    private void onTick(MinecraftServer server) {
+        if (writer == null) return;
+        ServerWorld world = server.getOverworld();
+        long now = world.getTime();
+        lastGameTime = now;
+        writer.time(now, world.getTimeOfDay());
+        writer.weather(now, weatherFlags(world));
+        if (now % sampleTicks == 0) {
+            for (ServerPlayerEntity p : server.getPlayerManager().getPlayerList()) {
+                writer.sample(now, p.getUuid(), timeSinceRest(p));
+            }
+        }
+        if (writer.size() >= CHUNK_BYTES || (writer.size() > 0 && System.nanoTime() - lastFlush >= FLUSH_NANOS)) flush();
+    }
+
+    private void join(ServerPlayerEntity p) {
+        writer.join(lastGameTime, p.getUuid(), p.getName().getString(), timeSinceRest(p), inOverworld(p));
+    }
+
+    // Events between ticks are stamped with the overworld's current time; the writer keeps records in order.
+    private long now() {
+        return server.getOverworld().getTime();
+    }
+
+    private void flush() {
+        lastFlush = System.nanoTime();
+        byte[] chunk = writer.drain();
+        Path target = file;
+        io.execute(() -> {
+            try (OutputStream out = Files.newOutputStream(target, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                out.write(chunk);
+            } catch (IOException e) {
+                NightNotifier.LOGGER.warn("[NightNotifier] Trace write failed for {}", target, e);
+            }
+        });
+    }
+
+    private static boolean inOverworld(ServerPlayerEntity p) {
+        return p.getEntityWorld().getRegistryKey().equals(World.OVERWORLD);
+    }
+
+    private static int weatherFlags(ServerWorld world) {
+        return (world.isRaining() ? TraceFormat.RAINING : 0) | (world.isThundering() ? TraceFormat.THUNDERING : 0);
+    }
+
+    private static int timeSinceRest(ServerPlayerEntity p) {
+        return p.getStatHandler().getStat(Stats.CUSTOM.getOrCreateStat(Stats.TIME_SINCE_REST));
+    }
+}
@@ -0,0 +1,193 @@
+package hawkshock.nightnotifier.trace;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Encodes a trace into an in-memory buffer; the caller {@link #drain}s it to disk off-thread.
+ *
+ * Holds the same predictions as {@link TraceReader} and only writes records where they fail.
+ * Single-threaded; never touches the file system.
+ */
+public final class TraceWriter {
+    private byte[] buf = new byte[8192];
+    private int len = 0;
+
+    private long lastGameTime;
+    // Time of day as of timeGame, and how fast it advances after that.
+    private long timeOfDay;
+    private long timeGame;
+    private int timeRate = 1;
+    private int weather;
+
+    private final Map<UUID, Integer> indices = new HashMap<>();
+    private long[] tsr = new long[32];
+    private long[] tsrGame = new long[32];
+    private boolean[] away = new boolean[32];
+
+    public TraceWriter(long gameTime, long timeOfDay, int weather, int restThresholdTicks, int leadTicks,
+                       int stormDwellTicks, int maxOffenderNames, String world) {
+        this.lastGameTime = gameTime;
+        this.timeOfDay = timeOfDay;
+        this.timeGame = gameTime;
+        this.weather = weather;
+        writeInt(TraceFormat.MAGIC);
+        writeVar(TraceFormat.VERSION);
+        writeVar(gameTime);
+        writeVar(timeOfDay);
+        writeVar(weather);
+        writeVar(restThresholdTicks);
+        writeVar(TraceFormat.zigzag(leadTicks));
+        writeVar(stormDwellTicks);
+        writeVar(maxOffenderNames);
+        writeString(world);
+    }
+
+    /** Call every tick; writes a TIME record only when the time of day was not where predicted. */
+    public void time(long gameTime, long now) {
+        long predicted = timeOfDay + timeRate * (gameTime - timeGame);
+        if (now == predicted) return;
+        // One tick after a known point and one further along: the clock is running normally again.
+        int rate = gameTime - timeGame == 1 && now - timeOfDay == 1 ? 1 : 0;
+        record(TraceFormat.TIME, gameTime);
+        writeVar(now);
+        writeVar(rate);
+        timeOfDay = now;
+        timeGame = gameTime;
+        timeRate = rate;
+    }
+
+    public void weather(long gameTime, int flags) {
+        if (flags == weather) return;
+        record(TraceFormat.WEATHER, gameTime);
+        writeVar(flags);
+        weather = flags;
+    }
+
+    public void join(long gameTime, UUID player, String name, int ticksSinceRest, boolean overworld) {
+        Integer existing = indices.get(player);
+        int index = existing != null ? existing : indices.size();
+        if (existing == null) {
+            indices.put(player, index);
+            if (index == tsr.length) {
+                tsr = Arrays.copyOf(tsr, index * 2);
+                tsrGame = Arrays.copyOf(tsrGame, index * 2);
+                away = Arrays.copyOf(away, index * 2);
+            }
+        }
+        record(TraceFormat.JOIN, gameTime);
+        writeVar(index);
+        writeLong(player.getMostSignificantBits());
+        writeLong(player.getLeastSignificantBits());
+        writeString(name);
+        writeVar(ticksSinceRest);
+        tsr[index] = ticksSinceRest;
+        tsrGame[index] = gameTime;
+        // JOIN implies the overworld.
+        away[index] = false;
+        world(gameTime, player, overworld);
+    }
+
+    public void leave(long gameTime, UUID player) {
+        Integer index = indices.get(player);
+        if (index == null) return;
+        record(TraceFormat.LEAVE, gameTime);
+        writeVar(index);
+    }
+
+    /** Returns true if the sample differed from the prediction and was written. */
+    public boolean sample(long gameTime, UUID player, int ticksSinceRest) {
+        Integer index = indices.get(player);
+        if (index == null) return false;
+        long predicted = tsr[index] + (gameTime - tsrGame[index]);
+        tsr[index] = ticksSinceRest;
+        tsrGame[index] = gameTime;
+        if (ticksSinceRest == predicted) return false;
+        record(TraceFormat.SAMPLE, gameTime);
+        writeVar(index);
+        writeVar(TraceFormat.zigzag(ticksSinceRest - predicted));
+        return true;
+    }
+
+    /** The player got into bed, which resets TIME_SINCE_REST; stored so replays need not wait for the next sample. */
+    public void rest(long gameTime, UUID player) {
+        Integer index = indices.get(player);
+        if (index == null) return;
+        record(TraceFormat.REST, gameTime);
+        writeVar(index);
+        tsr[index] = 0;
+        tsrGame[index] = gameTime;
+    }
+
+    /** Writes a WORLD record only when the player crossed into or out of the overworld. */
+    public void world(long gameTime, UUID player, boolean overworld) {
+        Integer index = indices.get(player);
+        if (index == null || away[index] == !overworld) return;
+        record(TraceFormat.WORLD, gameTime);
+        writeVar(index);
+        writeVar(overworld ? 1 : 0);
+        away[index] = !overworld;
+    }
+
+    public void end(long gameTime) {
+        record(TraceFormat.END, gameTime);
+    }
+
+    public int size() {
+        return len;
+    }
+
+    /** Encoded bytes since the last drain. */
+    public byte[] drain() {
+        byte[] out = Arrays.copyOf(buf, len);
+        len = 0;
+        return out;
+    }
+
+    private void record(int tag, long gameTime) {
+        writeByte(tag);
+        writeVar(Math.max(0, gameTime - lastGameTime));
+        lastGameTime = Math.max(lastGameTime, gameTime);
+    }
+
+    private void writeString(String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        writeVar(b.length);
+        ensure(b.length);
+        System.arraycopy(b, 0, buf, len, b.length);
+        len += b.length;
+    }
+
+    private void writeInt(int v) {
+        writeByte(v >>> 24);
+        writeByte(v >>> 16);
+        writeByte(v >>> 8);
+        writeByte(v);
+    }
+
+    private void writeLong(long v) {
+        writeInt((int) (v >>> 32));
+        writeInt((int) v);
+    }
+
+    private void writeVar(long v) {
+        ensure(10);
+        while ((v & ~0x7FL) != 0) {
+            buf[len++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[len++] = (byte) v;
+    }
+
+    private void writeByte(int b) {
+        ensure(1);
+        buf[len++] = (byte) b;
+    }
+
+    private void ensure(int n) {
+        if (len + n > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + n));
+    }
+}
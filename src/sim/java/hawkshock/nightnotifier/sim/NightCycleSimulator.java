@@ -0,0 +1,234 @@
+package hawkshock.nightnotifier.sim;
+
+import hawkshock.nightnotifier.time.NightClock;
+import hawkshock.nightnotifier.time.NightCycleEngine;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Drives {@link NightCycleEngine} through randomized virtual days and checks its invariants.
+ *
+ * Time mostly strides straight to the next phase boundary (give or take a tick), mixed with
+ * single ticks, short skips, {@code /time set} jumps in both directions, multi-day jumps,
+ * thunderstorms of every length and mid-run config reloads. Exits with status 1 on any violation.
+ *
+ * Usage: {@code NightCycleSimulator [days] [seed|random]}. The seed defaults to a fixed value so
+ * {@code check} is reproducible; {@code random} draws a new one, printed so a failure can be rerun.
+ */
+public final class NightCycleSimulator {
+    private static final long DAY = NightClock.TICKS_PER_DAY;
+    private static final int DAYS_PER_SCENARIO = 10_000;
+    private static final int MAX_REPORTED = 20;
+    private static final long DEFAULT_SEED = 0x4E4E_5349_4D00L;
+
+    /** Mutable world the engine reads through its sources. */
+    private static final class VirtualWorld {
+        long timeOfDay;
+        long gameTime;
+        boolean thundering;
+        long weatherChangeAt;
+    }
+
+    private final SplittableRandom rnd;
+    private long violations;
+    private long ticks;
+    private long nightStarts;
+    private long warnings;
+    private long sunrises;
+    private long forwardTicks;
+
+    // Per-scenario state.
+    private VirtualWorld world;
+    private NightCycleEngine engine;
+    private boolean fresh;
+    private int lead;
+    private int dwell;
+    private boolean inNight;
+    private int warningsThisNight;
+    private boolean sawWindowThisNight;
+    private long thunderSince;
+    private long clearSince;
+
+    private NightCycleSimulator(long seed) {
+        this.rnd = new SplittableRandom(seed);
+    }
+
+    public static void main(String[] args) {
+        long days = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+        long seed = args.length < 2 ? DEFAULT_SEED
+                : args[1].equals("random") ? System.nanoTime() : Long.parseLong(args[1]);
+        NightCycleSimulator sim = new NightCycleSimulator(seed);
+
+        long start = System.nanoTime();
+        sim.run(days);
+        long nanos = System.nanoTime() - start;
+
+        double seconds = nanos / 1e9;
+        double simulatedDays = (double) sim.forwardTicks / DAY;
+        System.out.printf(Locale.ROOT, "seed=%d days=%.0f ticks=%d in %.2fs: %.0f days/s, %.1f ns/tick%n",
+                seed, simulatedDays, sim.ticks, seconds, simulatedDays / seconds, (double) nanos / sim.ticks);
+        System.out.printf(Locale.ROOT, "night_start=%d sunrise_imminent=%d sunrise=%d violations=%d%n",
+                sim.nightStarts, sim.warnings, sim.sunrises, sim.violations);
+        if (sim.violations > 0) System.exit(1);
+    }
+
+    private void run(long days) {
+        while (forwardTicks < days * DAY) {
+            long scenarioEnd = forwardTicks + Math.min(DAYS_PER_SCENARIO, days) * DAY;
+            startScenario();
+            while (forwardTicks < scenarioEnd) {
+                if (rnd.nextInt(DAYS_PER_SCENARIO) == 0) randomizeConfig(); // ~ a reload every scenario
+                advance();
+                step();
+            }
+        }
+    }
+
+    private void startScenario() {
+        world = new VirtualWorld();
+        world.timeOfDay = rnd.nextLong(0, 1000 * DAY);
+        world.gameTime = rnd.nextLong(0, 1_000_000L);
+        world.thundering = rnd.nextInt(8) == 0;
+        world.weatherChangeAt = world.gameTime + weatherDuration();
+        VirtualWorld w = world;
+        engine = new NightCycleEngine(() -> w.timeOfDay, () -> w.gameTime, () -> w.thundering);
+        randomizeConfig();
+        fresh = true;
+        inNight = false;
+        warningsThisNight = 0;
+        sawWindowThisNight = false;
+        thunderSince = world.thundering ? world.gameTime : -1L;
+        clearSince = world.thundering ? -1L : world.gameTime;
+    }
+
+    private void randomizeConfig() {
+        // Includes negative and over-long leads to exercise clamping.
+        lead = rnd.nextInt(10) == 0 ? rnd.nextInt(-200, 20_000) : rnd.nextInt(0, 2400);
+        dwell = rnd.nextInt(4) == 0 ? 0 : rnd.nextInt(1, 400);
+    }
+
+    private long weatherDuration() {
+        int r = rnd.nextInt(10);
+        if (r < 3) return rnd.nextLong(1, Math.max(2, dwell * 2L)); // flapping around the dwell time
+        if (r < 6) return rnd.nextLong(1, 6000);
+        return rnd.nextLong(6000, 4 * DAY);
+    }
+
+    private void advance() {
+        long before = world.timeOfDay;
+        int r = rnd.nextInt(100);
+        long delta;
+        if (r < 60) {
+            long target = nextBoundary() + rnd.nextInt(-1, 2);
+            delta = Math.max(1, target - before);
+        } else if (r < 85) {
+            delta = 1;
+        } else if (r < 95) {
+            delta = rnd.nextInt(2, 200);
+        } else if (r < 99) {
+            // /time set: anywhere within the previous, current or next day.
+            long day = Math.floorDiv(before, DAY) + rnd.nextInt(-1, 2);
+            world.timeOfDay = Math.max(0, day * DAY + rnd.nextLong(DAY));
+            world.gameTime++;
+            if (world.timeOfDay > before) forwardTicks += world.timeOfDay - before;
+            updateWeather();
+            return;
+        } else {
+            delta = rnd.nextLong(DAY, 3 * DAY);
+        }
+        world.timeOfDay += delta;
+        world.gameTime += delta;
+        forwardTicks += delta;
+        updateWeather();
+    }
+
+    // Next time of day at which the engine's answer can change.
+    private long nextBoundary() {
+        NightClock clock = engine.clock();
+        long t = world.timeOfDay;
+        long dayTime = Math.floorMod(t, DAY);
+        long warnAt = NightClock.warningStartTick(lead);
+        if (dayTime >= NightClock.NIGHT_START && dayTime < warnAt) return t + (warnAt - dayTime);
+        return Math.max(t + 1, clock.nextTransitionTick());
+    }
+
+    private void updateWeather() {
+        if (world.gameTime < world.weatherChangeAt) return;
+        world.thundering = !world.thundering;
+        world.weatherChangeAt = world.gameTime + weatherDuration();
+    }
+
+    private void step() {
+        boolean wasOpen = engine.open();
+        boolean wasNatural = engine.clock().naturalNight();
+        long lastTime = engine.clock().timeOfDay();
+        boolean first = fresh;
+        fresh = false;
+
+        int fired = engine.tick(lead, dwell);
+        ticks++;
+        NightClock clock = engine.clock();
+
+        if (world.thundering) {
+            if (thunderSince < 0) thunderSince = world.gameTime;
+            clearSince = -1L;
+        } else {
+            if (clearSince < 0) clearSince = world.gameTime;
+            thunderSince = -1L;
+        }
+
+        boolean start = (fired & NightCycleEngine.NIGHT_START) != 0;
+        boolean warn = (fired & NightCycleEngine.SUNRISE_IMMINENT) != 0;
+        boolean sunrise = (fired & NightCycleEngine.SUNRISE) != 0;
+
+        if (start && sunrise) fail("NIGHT_START and SUNRISE on the same tick");
+        if (start && !clock.canSleep()) fail("NIGHT_START while sleeping is not allowed");
+        if (sunrise && clock.canSleep()) fail("SUNRISE while sleeping is allowed");
+        if (sunrise && !wasOpen) fail("SUNRISE without an open night");
+        if (start && wasOpen && !(clock.timeOfDay() - lastTime > 1
+                && clock.dayNumber() != Math.floorDiv(lastTime, DAY))) {
+            fail("NIGHT_START repeated without a jump over sunrise");
+        }
+        if (warn && !(clock.inWarningWindow() && engine.open())) fail("SUNRISE_IMMINENT outside the warning window");
+        if (warn && lead <= 0) fail("SUNRISE_IMMINENT with lead " + lead);
+
+        // Weather-only edges must have waited out the dwell time (a restart after a time jump is not an edge).
+        if (!first && dwell > 0 && !clock.naturalNight() && !wasNatural) {
+            if (start && !wasOpen && world.gameTime - thunderSince < dwell) fail("storm NIGHT_START before dwell " + dwell);
+            if (sunrise && world.gameTime - clearSince < dwell) fail("storm SUNRISE before dwell " + dwell);
+        }
+
+        if (start || sunrise) closeNight();
+        if (start) inNight = true;
+        if (warn) {
+            warnings++;
+            if (++warningsThisNight > 1) fail("second SUNRISE_IMMINENT in one night");
+        }
+        if (inNight && clock.inWarningWindow()) {
+            sawWindowThisNight = true;
+            if (warningsThisNight == 0) fail("warning window reached without SUNRISE_IMMINENT");
+        }
+        if (inNight != engine.open()) fail("engine open=" + engine.open() + " but simulator night=" + inNight);
+        if (start) nightStarts++;
+        if (sunrise) sunrises++;
+    }
+
+    // Exactly one warning for every night that reached the warning window, none otherwise.
+    private void closeNight() {
+        if (inNight && warningsThisNight != (sawWindowThisNight ? 1 : 0)) {
+            fail("night closed with " + warningsThisNight + " warnings (window seen: " + sawWindowThisNight + ")");
+        }
+        inNight = false;
+        warningsThisNight = 0;
+        sawWindowThisNight = false;
+    }
+
+    private void fail(String what) {
+        if (violations++ < MAX_REPORTED) {
+            NightClock c = engine.clock();
+            System.out.printf(Locale.ROOT, "VIOLATION %s: time=%d (dayTime %d) game=%d thunder=%b lead=%d dwell=%d%n",
+                    what, c.timeOfDay(), c.dayTime(), world.gameTime, world.thundering, lead, dwell);
+        }
+    }
+}
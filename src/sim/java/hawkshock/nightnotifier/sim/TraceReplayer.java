@@ -0,0 +1,261 @@
+package hawkshock.nightnotifier.sim;
+
+import hawkshock.nightnotifier.server.NotificationText;
+import hawkshock.nightnotifier.server.OffenderRanking;
+import hawkshock.nightnotifier.time.NightClock;
+import hawkshock.nightnotifier.time.NightCycleEngine;
+import hawkshock.nightnotifier.trace.TraceFormat;
+import hawkshock.nightnotifier.trace.TraceReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Engine and ranking replay of a recorded {@code .nntrace}, without Minecraft:
+ * {@link NightCycleEngine} every game tick, and on each NIGHT_START / SUNRISE_IMMINENT the offender
+ * ranking over the players in the overworld and the message text the server would compose.
+ *
+ * It is not the full notification pipeline. Audience filters, notification budgets, tick-pressure
+ * tiers, deferral and client-side dedup are not modelled, so the events it reports are the ones the
+ * server would consider, not what any player received. Rests and world changes come from the trace's
+ * REST and WORLD records; other corrections to TIME_SINCE_REST only arrive with the periodic samples.
+ *
+ * Prints per-event lines with {@code --verbose}, then a summary with timings and a digest of every
+ * decision. {@code --expect <digest>} turns the run into a regression test (exit status 1 on a
+ * mismatch). {@code --threshold/--lead/--dwell/--names N} override the recorded config.
+ *
+ * Usage: {@code TraceReplayer <trace> [--verbose] [--expect hex] [--threshold N] [--lead N] [--dwell N] [--names N]}
+ */
+public final class TraceReplayer implements TraceReader.Visitor {
+    private static final class ReplayPlayer {
+        final String name;
+        boolean overworld = true;
+        long tsr;
+        long tsrGame;
+
+        ReplayPlayer(String name) {
+            this.name = name;
+        }
+    }
+
+    private final boolean verbose;
+    private Integer threshold;
+    private Integer lead;
+    private Integer dwell;
+    private Integer names;
+
+    private final List<ReplayPlayer> byIndex = new ArrayList<>();
+    private final List<ReplayPlayer> online = new ArrayList<>();
+    // Online players in the overworld, gathered per event: the server ranks world.getPlayers().
+    private final List<ReplayPlayer> ranked = new ArrayList<>();
+    private NightCycleEngine engine;
+
+    // Virtual world, as of the tick being simulated.
+    private long tick;
+    private long timeOfDay;
+    private long timeGame;
+    private int timeRate = 1;
+    private boolean thundering;
+    private long startGame;
+
+    private long ticks;
+    private long events;
+    private long pipelineNanos;
+    private long pipelineMaxNanos;
+    private int peakOnline;
+    private int maxOffenders;
+    private long digest = 0xcbf29ce484222325L;
+    private boolean clean;
+
+    private TraceReplayer(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: TraceReplayer <trace> [--verbose] [--expect hex] [--threshold N] [--lead N] [--dwell N] [--names N]");
+            System.exit(2);
+        }
+        Path trace = Path.of(args[0]);
+        boolean verbose = false;
+        String expect = null;
+        List<String[]> overrides = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--verbose" -> verbose = true;
+                case "--expect" -> expect = args[++i];
+                default -> overrides.add(new String[]{args[i], args[++i]});
+            }
+        }
+        TraceReplayer replay = new TraceReplayer(verbose);
+        for (String[] o : overrides) {
+            int v = Integer.parseInt(o[1]);
+            switch (o[0]) {
+                case "--threshold" -> replay.threshold = v;
+                case "--lead" -> replay.lead = v;
+                case "--dwell" -> replay.dwell = v;
+                case "--names" -> replay.names = v;
+                default -> throw new IllegalArgumentException("Unknown option " + o[0]);
+            }
+        }
+
+        long start = System.nanoTime();
+        try (InputStream in = Files.newInputStream(trace)) {
+            TraceReader.read(in, replay);
+        }
+        long nanos = System.nanoTime() - start;
+        double seconds = nanos / 1e9;
+
+        String hex = Long.toHexString(replay.digest);
+        System.out.printf(Locale.ROOT, "%s: %d ticks (%.1f days) in %.2fs%s, %d players, peak online %d%n",
+                trace.getFileName(), replay.ticks, replay.ticks / (double) NightClock.TICKS_PER_DAY, seconds,
+                replay.clean ? "" : " (truncated)", replay.byIndex.size(), replay.peakOnline);
+        // Decoding and engine ticks together; the notification pipeline is reported separately.
+        System.out.printf(Locale.ROOT, "replay %.1f ns/tick; %d ranked events, ranking mean %.1fus max %.1fus, max offenders %d%n",
+                replay.ticks > 0 ? (double) (nanos - replay.pipelineNanos) / replay.ticks : 0.0, replay.events,
+                replay.events > 0 ? replay.pipelineNanos / 1e3 / replay.events : 0.0, replay.pipelineMaxNanos / 1e3,
+                replay.maxOffenders);
+        System.out.println("digest " + hex);
+        if (expect != null && !expect.equalsIgnoreCase(hex)) {
+            System.out.println("MISMATCH: expected digest " + expect);
+            System.exit(1);
+        }
+    }
+
+    @Override
+    public void header(TraceReader.Header h) {
+        if (threshold == null) threshold = h.restThresholdTicks();
+        if (lead == null) lead = h.leadTicks();
+        if (dwell == null) dwell = h.stormDwellTicks();
+        if (names == null) names = h.maxOffenderNames();
+        startGame = h.gameTime();
+        tick = h.gameTime() - 1;
+        timeOfDay = h.timeOfDay();
+        timeGame = h.gameTime();
+        thundering = (h.weather() & TraceFormat.THUNDERING) != 0;
+        engine = new NightCycleEngine(() -> timeOfDay + timeRate * (tick - timeGame), () -> tick, () -> thundering);
+        if (verbose) {
+            System.out.printf(Locale.ROOT, "world %s from game time %d, threshold=%d lead=%d dwell=%d names=%d%n",
+                    h.world(), h.gameTime(), threshold, lead, dwell, names);
+        }
+    }
+
+    @Override
+    public void time(long gameTime, long timeOfDay, int rate) {
+        advanceTo(gameTime - 1);
+        this.timeOfDay = timeOfDay;
+        this.timeGame = gameTime;
+        this.timeRate = rate;
+    }
+
+    @Override
+    public void weather(long gameTime, boolean raining, boolean thundering) {
+        advanceTo(gameTime - 1);
+        this.thundering = thundering;
+    }
+
+    @Override
+    public void join(long gameTime, int index, UUID player, String name, int ticksSinceRest) {
+        advanceTo(gameTime - 1);
+        while (byIndex.size() <= index) byIndex.add(null);
+        ReplayPlayer p = byIndex.get(index);
+        if (p == null) {
+            p = new ReplayPlayer(name);
+            byIndex.set(index, p);
+        }
+        p.tsr = ticksSinceRest;
+        p.tsrGame = gameTime;
+        p.overworld = true;
+        if (!online.contains(p)) online.add(p);
+        peakOnline = Math.max(peakOnline, online.size());
+    }
+
+    @Override
+    public void leave(long gameTime, int index) {
+        advanceTo(gameTime - 1);
+        online.remove(byIndex.get(index));
+    }
+
+    @Override
+    public void sample(long gameTime, int index, int ticksSinceRest) {
+        advanceTo(gameTime - 1);
+        ReplayPlayer p = byIndex.get(index);
+        p.tsr = ticksSinceRest;
+        p.tsrGame = gameTime;
+    }
+
+    @Override
+    public void rest(long gameTime, int index) {
+        advanceTo(gameTime - 1);
+        ReplayPlayer p = byIndex.get(index);
+        p.tsr = 0;
+        p.tsrGame = gameTime;
+    }
+
+    @Override
+    public void world(long gameTime, int index, boolean overworld) {
+        advanceTo(gameTime - 1);
+        byIndex.get(index).overworld = overworld;
+    }
+
+    @Override
+    public void end(long gameTime, boolean clean) {
+        advanceTo(gameTime);
+        this.clean = clean;
+    }
+
+    private void advanceTo(long gameTime) {
+        while (tick < gameTime) {
+            tick++;
+            int fired = engine.tick(lead, dwell);
+            ticks++;
+            if ((fired & NightCycleEngine.NIGHT_START) != 0) notify("NIGHT_START", "Nightfall");
+            if ((fired & NightCycleEngine.SUNRISE_IMMINENT) != 0) {
+                int seconds = NightClock.secondsFor(engine.clock().ticksUntilSunrise(), 20f);
+                notify("SUNRISE_IMMINENT", seconds + "s Until Sunrise");
+            }
+            if ((fired & NightCycleEngine.SUNRISE) != 0) record("SUNRISE", 0, "");
+        }
+    }
+
+    // The ranking and composition the server runs between the transition and the audience/budget checks.
+    private void notify(String event, String label) {
+        long t0 = System.nanoTime();
+        ranked.clear();
+        for (ReplayPlayer p : online) {
+            if (p.overworld) ranked.add(p);
+        }
+        List<ReplayPlayer> offenders = OffenderRanking.collect(ranked, this::ticksSinceRest, threshold);
+        String message = offenders.isEmpty() ? ""
+                : NotificationText.compose(label, offenders, p -> p.name, this::ticksSinceRest, names);
+        long nanos = System.nanoTime() - t0;
+        events++;
+        pipelineNanos += nanos;
+        pipelineMaxNanos = Math.max(pipelineMaxNanos, nanos);
+        maxOffenders = Math.max(maxOffenders, offenders.size());
+        record(event, offenders.size(), message);
+    }
+
+    private int ticksSinceRest(ReplayPlayer p) {
+        return (int) Math.min(Integer.MAX_VALUE, p.tsr + (tick - p.tsrGame));
+    }
+
+    // FNV-1a over every decision, so two replays can be compared with one number.
+    private void record(String event, int offenders, String message) {
+        String line = event + '|' + (tick - startGame) + '|' + offenders + '|' + message;
+        for (int i = 0; i < line.length(); i++) {
+            digest ^= line.charAt(i);
+            digest *= 0x100000001b3L;
+        }
+        if (verbose) {
+            System.out.printf(Locale.ROOT, "+%d day %d %s online=%d offenders=%d %s%n", tick - startGame,
+                    engine.clock().dayNumber(), event, online.size(), offenders, message);
+        }
+    }
+}